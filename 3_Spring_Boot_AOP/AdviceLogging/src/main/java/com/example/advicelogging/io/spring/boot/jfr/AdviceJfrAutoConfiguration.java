@@ -0,0 +1,96 @@
+package com.example.advicelogging.io.spring.boot.jfr;
+
+import jdk.jfr.Recording;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+
+//emits JFR events for the calls matched by the advice.jfr.events pointcuts when advice.jfr.enabled=true
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = {"org.aspectj.weaver.Advice", "jdk.jfr.Event"})
+@ConditionalOnProperty(prefix = "advice.jfr", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AdviceJfrProperties.class)
+public class AdviceJfrAutoConfiguration {
+
+    //one advisor per entry, the entries are only known once the environment is there
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor jfrEventAdvisors() {
+        return new JfrEventAdvisorRegistrar();
+    }
+
+    //stopping the recording writes it to its destination
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "advice.jfr.recording", name = "enabled", havingValue = "true")
+    public Recording adviceRecording(AdviceJfrProperties properties) throws IOException, ParseException {
+        AdviceJfrProperties.Recording settings = properties.getRecording();
+        Recording recording = new Recording(jdk.jfr.Configuration.getConfiguration(settings.getSettings()));
+        recording.setName("advice");
+        recording.setToDisk(true);
+        recording.setMaxAge(settings.getMaxAge());
+        recording.setMaxSize(settings.getMaxSize().toBytes());
+        Path destination = settings.getDestination().toAbsolutePath();
+        Files.createDirectories(destination.getParent());
+        recording.setDestination(destination);
+        recording.enable(ServiceCallEvent.class).withoutStackTrace().withThreshold(Duration.ZERO);
+        recording.start();
+        return recording;
+    }
+
+    static class JfrEventAdvisorRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+            AdviceJfrProperties properties = Binder.get(environment).bind("advice.jfr", AdviceJfrProperties.class)
+                    .orElseGet(AdviceJfrProperties::new);
+            for (Map.Entry<String, AdviceJfrProperties.Events> entry : properties.getEvents().entrySet()) {
+                AdviceJfrProperties.Events events = entry.getValue();
+                if (!events.isEnabled()) {
+                    continue;
+                }
+                if (events.getPointcut() == null) {
+                    throw new IllegalStateException("advice.jfr.events." + entry.getKey() + ".pointcut is not set");
+                }
+                String name = entry.getKey();
+                registry.registerBeanDefinition("jfrEventAdvisor." + name, BeanDefinitionBuilder
+                        .genericBeanDefinition(Advisor.class, () -> advisor(name, events))
+                        .getBeanDefinition());
+            }
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        }
+
+        private static Advisor advisor(String name, AdviceJfrProperties.Events events) {
+            AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+            advisor.setExpression(events.getPointcut());
+            advisor.setAdvice(new JfrEventInterceptor(name, events.getThreshold().toNanos()));
+            return advisor;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.advicelogging.io.spring.boot.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JFR events bound from {@code advice.jfr.*}.
+ * <p>
+ * Each entry under {@code advice.jfr.events.<name>.*} advises the calls matched by its pointcut and emits a
+ * {@link ServiceCallEvent} named after the entry for the calls that take at least its threshold.
+ */
+@ConfigurationProperties(prefix = "advice.jfr")
+public class AdviceJfrProperties {
+
+    private boolean enabled;
+
+    private Map<String, Events> events = new LinkedHashMap<>();
+
+    private Recording recording = new Recording();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Events> getEvents() {
+        return events;
+    }
+
+    public void setEvents(Map<String, Events> events) {
+        this.events = events;
+    }
+
+    public Recording getRecording() {
+        return recording;
+    }
+
+    public void setRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    public static class Events {
+
+        private boolean enabled = true;
+
+        private String pointcut;
+
+        //calls that return faster are not recorded
+        private Duration threshold = Duration.ZERO;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPointcut() {
+            return pointcut;
+        }
+
+        public void setPointcut(String pointcut) {
+            this.pointcut = pointcut;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    //a continuous recording started with the application, not needed when the JVM starts one itself
+    public static class Recording {
+
+        private boolean enabled;
+
+        //a configuration of the JDK, "default" or "profile"
+        private String settings = "default";
+
+        private Duration maxAge = Duration.ofHours(6);
+
+        private DataSize maxSize = DataSize.ofMegabytes(250);
+
+        //written when the application stops, jcmd <pid> JFR.dump name=advice filename=<file> dumps it at any time
+        private Path destination = Paths.get("recordings", "advice.jfr");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSettings() {
+            return settings;
+        }
+
+        public void setSettings(String settings) {
+            this.settings = settings;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Path getDestination() {
+            return destination;
+        }
+
+        public void setDestination(Path destination) {
+            this.destination = destination;
+        }
+    }
+}
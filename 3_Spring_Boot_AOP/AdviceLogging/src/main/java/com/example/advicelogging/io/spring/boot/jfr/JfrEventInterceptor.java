@@ -0,0 +1,73 @@
+package com.example.advicelogging.io.spring.boot.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Advice that emits a {@link ServiceCallEvent} for each advised call that takes at least {@code thresholdNanos}.
+ * <p>
+ * When no recording has the event enabled, {@code isEnabled()} is a constant false once JFR has instrumented the
+ * event class. The JIT then removes the event allocation, so the advice costs one branch and allocates nothing.
+ * The method signatures are formatted once per method, recorded events only reference them.
+ */
+public class JfrEventInterceptor implements MethodInterceptor {
+
+    private static final String RETURNED = "returned";
+    private static final String THREW = "threw";
+
+    private final String name;
+
+    private final long thresholdNanos;
+
+    private final ConcurrentHashMap<Method, String> signatures = new ConcurrentHashMap<>();
+
+    public JfrEventInterceptor(String name, long thresholdNanos) {
+        this.name = name;
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        event.begin();
+        Throwable error = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            event.end();
+            //shouldCommit() also applies the threshold of the recordings
+            if (System.nanoTime() - start >= thresholdNanos && event.shouldCommit()) {
+                event.event = name;
+                event.method = signature(invocation.getMethod());
+                event.outcome = error == null ? RETURNED : THREW;
+                event.exceptionClass = error == null ? null : error.getClass();
+                event.commit();
+            }
+        }
+    }
+
+    private String signature(Method method) {
+        String signature = signatures.get(method);
+        if (signature == null) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(method.getDeclaringClass().getName()).append('.').append(method.getName()).append('(');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                builder.append(i == 0 ? "" : ",").append(parameterTypes[i].getSimpleName());
+            }
+            signature = builder.append(')').toString();
+            signatures.putIfAbsent(method, signature);
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.advicelogging.io.spring.boot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one advised service call, named after the {@code advice.jfr.events} entry whose pointcut matched.
+ * <p>
+ * Enabled without a threshold and without stack traces by default, so recordings started with the JDK's
+ * default or profile settings record it at the thresholds of the {@code advice.jfr.events} entries.
+ */
+@Name("com.example.advice.ServiceCall")
+@Label("Service Call")
+@Category({"Application", "Advice"})
+@Description("Call of a service method matched by an advice.jfr.events pointcut")
+@Enabled
+@Threshold("0 ms")
+@StackTrace(false)
+public class ServiceCallEvent extends jdk.jfr.Event {
+
+    @Label("Event")
+    @Description("Name of the advice.jfr.events entry")
+    String event;
+
+    @Label("Method")
+    String method;
+
+    @Label("Outcome")
+    @Description("returned or threw")
+    String outcome;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,355 @@
+package com.example.advicelogging.io.spring.boot.logging;
+
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logger for advice that keeps the formatting and the console writes off the advised thread.
+ * <p>
+ * {@link #log(String, Object, Object, Object)} claims a slot of a preallocated ring buffer, copies the message
+ * template and its arguments into the event of that slot and returns. One background thread drains the
+ * published events in order, formats them into a reused buffer and writes them in batches. When the buffer is
+ * full the event is dropped and counted, or with {@link OverflowPolicy#BLOCK} the caller waits for a free slot.
+ * <p>
+ * Templates use {} for their arguments like SLF4J. Strings, numbers and method signatures are formatted without
+ * creating objects, so once the buffers are warm logging produces no garbage. A count or id that is a primitive
+ * has to go through one of the {@code long} overloads for that, passed as an Object it is boxed by the caller.
+ * Other arguments are formatted with their toString() on the background thread.
+ */
+public class AdviceLogger implements Closeable {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final Event[] ring;
+
+    private final int mask;
+
+    private final OverflowPolicy overflow;
+
+    //next sequence a logging thread claims
+    private final AtomicLong claimed = new AtomicLong();
+
+    //next sequence the drainer reads, every slot below it is free again
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    //everything below is only used by the drainer thread
+    private final WritableByteChannel out;
+    private final CharBuffer chars = CharBuffer.allocate(16 * 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(64 * 1024);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final Map<Method, String> signatures = new HashMap<>();
+    private final TimeZone timeZone = TimeZone.getDefault();
+    //offset of the time zone during the quarter hour starting at offsetFrom, zone transitions fall on quarter hours
+    private long offsetMillis;
+    private long offsetFrom = Long.MIN_VALUE;
+
+    public AdviceLogger(int bufferSize, OverflowPolicy overflow, WritableByteChannel out) {
+        int capacity = bufferSize <= 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.ring = new Event[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Event();
+        }
+        this.mask = capacity - 1;
+        this.overflow = overflow;
+        this.out = out;
+        this.drainer = new Thread(this::drain, "advice-logger");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public void log(String template) {
+        log(template, 0, false, null, null, null, 0);
+    }
+
+    public void log(String template, Object arg) {
+        log(template, 0, false, arg, null, null, 1);
+    }
+
+    public void log(String template, Object arg1, Object arg2) {
+        log(template, 0, false, arg1, arg2, null, 2);
+    }
+
+    public void log(String template, Object arg1, Object arg2, Object arg3) {
+        log(template, 0, false, arg1, arg2, arg3, 3);
+    }
+
+    public void log(String template, long arg) {
+        log(template, arg, true, null, null, null, 1);
+    }
+
+    public void log(String template, long arg1, Object arg2, Object arg3) {
+        log(template, arg1, true, null, arg2, arg3, 3);
+    }
+
+    //events dropped because the buffer was full or the logger was closed
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    //with numberFirst the first argument is number, not arg1
+    private void log(String template, long number, boolean numberFirst, Object arg1, Object arg2, Object arg3, int argCount) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= ring.length || !running) {
+                if (overflow == OverflowPolicy.DROP || !running) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                sequence = -1;
+            }
+        } while (sequence < 0 || !claimed.compareAndSet(sequence, sequence + 1));
+
+        Event event = ring[(int) sequence & mask];
+        event.timeMillis = System.currentTimeMillis();
+        event.thread = Thread.currentThread().getName();
+        event.template = template;
+        event.arg1 = arg1;
+        event.arg2 = arg2;
+        event.arg3 = arg3;
+        event.number = number;
+        event.numberFirst = numberFirst;
+        event.argCount = argCount;
+        //the volatile write publishes the fields above to the drainer
+        event.sequence = sequence;
+    }
+
+    //waits for the events logged so far to be written, then stops the drainer
+    @Override
+    public void close() {
+        running = false;
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long next = 0;
+        while (true) {
+            Event event = ring[(int) next & mask];
+            if (event.sequence != next) {
+                flush();
+                if (!running && next == claimed.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            format(event);
+            event.clear();
+            consumed.lazySet(++next);
+        }
+    }
+
+    private void format(Event event) {
+        appendTime(event.timeMillis);
+        append(" [");
+        append(event.thread);
+        append("] ");
+        String template = event.template;
+        int arg = 0;
+        int start = 0;
+        for (int i = template.indexOf("{}"); i >= 0; i = template.indexOf("{}", start)) {
+            append(template, start, i);
+            if (arg == 0 && event.numberFirst) {
+                appendLong(event.number);
+            } else {
+                appendArg(arg < event.argCount ? event.arg(arg) : null, arg < event.argCount);
+            }
+            arg++;
+            start = i + 2;
+        }
+        append(template, start, template.length());
+        append("\n");
+    }
+
+    private void appendArg(Object arg, boolean present) {
+        if (!present) {
+            append("{}");
+        } else if (arg == null) {
+            append("null");
+        } else if (arg instanceof String) {
+            append((String) arg);
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            appendLong(((Number) arg).longValue());
+        } else if (arg instanceof MethodSignature) {
+            append(signature(((MethodSignature) arg).getMethod()));
+        } else if (arg instanceof Method) {
+            append(signature((Method) arg));
+        } else {
+            append(String.valueOf(arg));
+        }
+    }
+
+    //formatted like AspectJ formats a method signature, once per method
+    private String signature(Method method) {
+        String signature = signatures.get(method);
+        if (signature == null) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(method.getReturnType().getSimpleName()).append(' ')
+                    .append(method.getDeclaringClass().getName()).append('.').append(method.getName()).append('(');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                builder.append(i == 0 ? "" : ",").append(parameterTypes[i].getSimpleName());
+            }
+            signature = builder.append(')').toString();
+            signatures.put(method, signature);
+        }
+        return signature;
+    }
+
+    //HH:mm:ss.SSS in the default time zone, daylight saving time included
+    private void appendTime(long timeMillis) {
+        long millisOfDay = Math.floorMod(timeMillis + offsetMillis(timeMillis), TimeUnit.DAYS.toMillis(1));
+        appendDigits(millisOfDay / 3_600_000, 2);
+        append(":");
+        appendDigits(millisOfDay / 60_000 % 60, 2);
+        append(":");
+        appendDigits(millisOfDay / 1_000 % 60, 2);
+        append(".");
+        appendDigits(millisOfDay % 1_000, 3);
+    }
+
+    //looked up once per quarter hour, TimeZone.getOffset walks the zone's transition table
+    private long offsetMillis(long timeMillis) {
+        long quarterHour = TimeUnit.MINUTES.toMillis(15);
+        long from = timeMillis - Math.floorMod(timeMillis, quarterHour);
+        if (from != offsetFrom) {
+            offsetMillis = timeZone.getOffset(timeMillis);
+            offsetFrom = from;
+        }
+        return offsetMillis;
+    }
+
+    private void appendDigits(long value, int digits) {
+        ensureRoom(digits);
+        for (int divisor = digits == 3 ? 100 : 10; divisor > 0; divisor /= 10) {
+            chars.put((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private void appendLong(long value) {
+        ensureRoom(20);
+        if (value < 0) {
+            chars.put('-');
+        } else {
+            value = -value;
+        }
+        //works on the negative value so that Long.MIN_VALUE needs no special case
+        long divisor = 1;
+        while (value / divisor <= -10) {
+            divisor *= 10;
+        }
+        for (; divisor != 0; divisor /= 10) {
+            chars.put((char) ('0' - value / divisor % 10));
+        }
+    }
+
+    private void append(String value) {
+        append(value, 0, value.length());
+    }
+
+    private void append(String value, int start, int end) {
+        while (start < end) {
+            if (!chars.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(end - start, chars.remaining());
+            chars.put(value, start, start + length);
+            start += length;
+        }
+    }
+
+    private void ensureRoom(int length) {
+        if (chars.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (chars.position() == 0) {
+            return;
+        }
+        chars.flip();
+        while (chars.hasRemaining()) {
+            encoder.encode(chars, bytes, false);
+            //a surrogate pair split at the end of the buffer stays in chars until the next flush
+            if (bytes.position() == 0) {
+                break;
+            }
+            writeBytes();
+        }
+        chars.compact();
+    }
+
+    private void writeBytes() {
+        bytes.flip();
+        try {
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        } catch (IOException ex) {
+            //nothing sensible to log to, the batch is lost
+        }
+        bytes.clear();
+    }
+
+    private static final class Event {
+
+        //sequence of the event in the slot, -1 until the first event is published
+        volatile long sequence = -1;
+
+        long timeMillis;
+        String thread;
+        String template;
+        Object arg1;
+        Object arg2;
+        Object arg3;
+        long number;
+        boolean numberFirst;
+        int argCount;
+
+        Object arg(int index) {
+            return index == 0 ? arg1 : index == 1 ? arg2 : arg3;
+        }
+
+        //lets the arguments be collected while the slot waits for its next event
+        void clear() {
+            thread = null;
+            template = null;
+            arg1 = null;
+            arg2 = null;
+            arg3 = null;
+        }
+    }
+}
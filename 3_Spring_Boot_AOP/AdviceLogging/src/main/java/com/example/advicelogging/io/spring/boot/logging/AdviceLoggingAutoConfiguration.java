@@ -0,0 +1,21 @@
+package com.example.advicelogging.io.spring.boot.logging;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+
+//registers the AdviceLogger in every application that has this jar on its classpath
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AdviceLoggingProperties.class)
+public class AdviceLoggingAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public AdviceLogger adviceLogger(AdviceLoggingProperties properties) {
+        return new AdviceLogger(properties.getBufferSize(), properties.getOverflow(), new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+}
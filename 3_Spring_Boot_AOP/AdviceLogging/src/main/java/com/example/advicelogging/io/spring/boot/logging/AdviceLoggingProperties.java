@@ -0,0 +1,29 @@
+package com.example.advicelogging.io.spring.boot.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "advice.log")
+public class AdviceLoggingProperties {
+
+    //events the ring buffer holds, rounded up to a power of two
+    private int bufferSize = 4096;
+
+    //what a logging thread does when the buffer is full
+    private AdviceLogger.OverflowPolicy overflow = AdviceLogger.OverflowPolicy.DROP;
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public AdviceLogger.OverflowPolicy getOverflow() {
+        return overflow;
+    }
+
+    public void setOverflow(AdviceLogger.OverflowPolicy overflow) {
+        this.overflow = overflow;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the calls of the annotated controller method per client with a token bucket: a client can make
+ * {@link #capacity()} calls in a burst, and the bucket refills by {@link #refillPerSecond()} calls per second.
+ * A call without a token is answered with 429 Too Many Requests and a Retry-After header.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    int capacity() default 20;
+
+    double refillPerSecond() default 10;
+}
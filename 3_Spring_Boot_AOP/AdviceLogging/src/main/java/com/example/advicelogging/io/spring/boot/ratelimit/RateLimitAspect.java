@@ -0,0 +1,62 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the token buckets of {@link RateLimit} to the annotated methods, one table of buckets per method.
+ * The client is identified by the configured request header, or by its address when the header is not set.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitAspect {
+
+    private final ConcurrentHashMap<Method, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final RateLimitProperties properties;
+
+    public RateLimitAspect(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Around("@annotation(rateLimit)")
+    public Object limitRate(ProceedingJoinPoint jp, RateLimit rateLimit) throws Throwable {
+        Method method = ((MethodSignature) jp.getSignature()).getMethod();
+        RateLimiter limiter = limiters.get(method);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(method, m -> new RateLimiter(rateLimit.capacity(), rateLimit.refillPerSecond(), properties.getMaxClients()));
+        }
+        long waitNanos = limiter.tryAcquire(clientKey());
+        if (waitNanos > 0) {
+            //Retry-After has whole seconds, rounded up so that the retry finds a token
+            throw new RateLimitExceededException(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+        return jp.proceed();
+    }
+
+    //calls outside of a request share one bucket
+    private String clientKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return "";
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        String header = properties.getClientHeader();
+        String client = StringUtils.hasLength(header) ? request.getHeader(header) : null;
+        return client != null ? client : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//enforces @RateLimit on the controllers of servlet web applications, unless advice.rate-limit.enabled=false
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "org.aspectj.weaver.Advice")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "advice.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitAutoConfiguration {
+
+    @Bean
+    public RateLimitAspect rateLimitAspect(RateLimitProperties properties) {
+        return new RateLimitAspect(properties);
+    }
+}
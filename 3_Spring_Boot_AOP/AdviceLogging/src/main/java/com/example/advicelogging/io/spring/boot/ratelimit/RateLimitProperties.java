@@ -0,0 +1,39 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "advice.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    //header that identifies the client, e.g. X-Api-Key, the remote address is used when not set or missing
+    private String clientHeader;
+
+    //clients whose buckets are kept per rate limited method, rounded up to a power of two
+    private int maxClients = 65536;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+}
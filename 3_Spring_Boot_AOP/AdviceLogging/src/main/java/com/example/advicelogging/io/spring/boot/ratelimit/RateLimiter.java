@@ -0,0 +1,99 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Token buckets per client key in a fixed size table, updated with compare-and-set only.
+ * <p>
+ * A bucket is a single long, the time at which it will be full again (GCRA). Taking a token moves that time one
+ * refill interval ahead, unless it would then lie more than {@code capacity} intervals in the future. A bucket
+ * whose time has passed is full, so it is the same as no bucket at all.
+ * <p>
+ * The table has a fixed number of slots in sets of {@value #WAYS}. A new key replaces the bucket of its set that
+ * has been full the longest, or if none is full, the one closest to full, so memory does not grow with the number
+ * of clients. When more clients are active than the table holds, an evicted client gets a full bucket again.
+ */
+public class RateLimiter {
+
+    private static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Bucket> table;
+
+    private final int setMask;
+
+    private final long intervalNanos;
+
+    //how far ahead of now the full time may be, the burst a full bucket allows
+    private final long burstNanos;
+
+    public RateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        int sets = Integer.highestOneBit(Math.max(1, maxKeys / WAYS - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    //0 when the call may proceed, otherwise the nanoseconds until the key has a token again
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        int set = (spread(key.hashCode()) & setMask) * WAYS;
+        while (true) {
+            int victim = -1;
+            Bucket victimBucket = null;
+            for (int i = set; i < set + WAYS; i++) {
+                Bucket bucket = table.get(i);
+                //slots are never emptied, so the key is not in a later slot either
+                if (bucket == null) {
+                    victim = i;
+                    victimBucket = null;
+                    break;
+                }
+                if (bucket.key.equals(key)) {
+                    return bucket;
+                }
+                if (victim < 0 || bucket.get() - victimBucket.get() < 0) {
+                    victim = i;
+                    victimBucket = bucket;
+                }
+            }
+            Bucket bucket = new Bucket(key, now);
+            //another thread changed the slot, look again in case it added this key
+            if (table.compareAndSet(victim, victimBucket, bucket)) {
+                return bucket;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Bucket extends AtomicLong {
+
+        final String key;
+
+        Bucket(String key, long now) {
+            //full
+            super(now);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.advicelogging.io.spring.boot.tracing;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//traces the calls matched by advice.trace.pointcut when advice.trace.enabled=true
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "org.aspectj.weaver.Advice")
+@ConditionalOnProperty(prefix = "advice.trace", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AdviceTracingProperties.class)
+public class AdviceTracingAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SpanExporter spanExporter(AdviceTracingProperties properties, @Value("${spring.application.name:application}") String serviceName) {
+        return new SpanExporter(properties.getDirectory(), serviceName, properties.getQueueSize(), properties.getBatchSize(),
+                properties.getFlushInterval().toNanos(), properties.getMaxFileSize().toBytes(), properties.getMaxFiles());
+    }
+
+    //an advisor rather than an @Aspect, so that the pointcut can come from the properties
+    @Bean
+    public Advisor tracingAdvisor(AdviceTracingProperties properties, SpanExporter spanExporter) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(properties.getPointcut());
+        advisor.setAdvice(new TracingInterceptor(properties.getSampleRate(), properties.getSlowThreshold().toNanos(), spanExporter));
+        return advisor;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.advicelogging.io.spring.boot.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "advice.trace")
+public class AdviceTracingProperties {
+
+    private boolean enabled;
+
+    //the calls that are traced, the controllers and services of the examples by default
+    private String pointcut = "execution(* com.example..controller..*(..)) || execution(* com.example..service..*(..))";
+
+    //probability that a trace is recorded, decided when its first call starts
+    private double sampleRate = 0.01;
+
+    //calls of unsampled traces that take at least this long are kept anyway
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    private Path directory = Paths.get("traces");
+
+    //finished spans waiting to be written, further spans are dropped
+    private int queueSize = 8192;
+
+    private int batchSize = 512;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    //spans.json and the rolled over spans.1.json, spans.2.json and so on
+    private int maxFiles = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPointcut() {
+        return pointcut;
+    }
+
+    public void setPointcut(String pointcut) {
+        this.pointcut = pointcut;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+}
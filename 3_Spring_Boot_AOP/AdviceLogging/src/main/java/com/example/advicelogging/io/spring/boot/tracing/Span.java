@@ -0,0 +1,40 @@
+package com.example.advicelogging.io.spring.boot.tracing;
+
+import java.lang.reflect.Method;
+
+//one traced method call, written once by the calling thread and read by the exporter after it is finished
+final class Span {
+
+    final long traceIdHigh;
+    final long traceIdLow;
+    final long spanId;
+    //0 for the root span of a trace
+    final long parentSpanId;
+    final Method method;
+    final String threadName;
+    //"head" when the trace was sampled, "slow" for a span of an unsampled trace kept for its duration
+    final String sampling;
+    final long startNanos;
+    long endNanos;
+    String errorType;
+    String errorMessage;
+
+    Span(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, Method method, String sampling, long startNanos) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.method = method;
+        this.threadName = Thread.currentThread().getName();
+        this.sampling = sampling;
+        this.startNanos = startNanos;
+    }
+
+    void end(long endNanos, Throwable error) {
+        this.endNanos = endNanos;
+        if (error != null) {
+            errorType = error.getClass().getName();
+            errorMessage = error.getMessage();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.advicelogging.io.spring.boot.tracing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes finished spans in batches to a rolling file, one OTLP/JSON export request per line.
+ * <p>
+ * {@link #export(Span)} only queues the span; when the queue is full the span is dropped and counted. A
+ * background thread writes a batch once {@code batchSize} spans are queued or {@code flushInterval} has passed.
+ * The file is {@code spans.json} in the configured directory; once it reaches {@code maxFileSize} it is renamed
+ * to {@code spans.1.json}, the older files move up by one and the oldest beyond {@code maxFiles} is deleted.
+ */
+public class SpanExporter implements Closeable {
+
+    private final BlockingQueue<Span> queue;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    //everything below is only used by the writer thread
+    private final Path directory;
+    private final String serviceName;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxFileSize;
+    private final int maxFiles;
+    //System.nanoTime() plus this is the time since the epoch
+    private final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+    private final Map<Method, String> names = new HashMap<>();
+    private final StringBuilder json = new StringBuilder(64 * 1024);
+    private Writer out;
+    private long fileSize;
+
+    public SpanExporter(Path directory, String serviceName, int queueSize, int batchSize, long flushIntervalNanos, long maxFileSize, int maxFiles) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.directory = directory;
+        this.serviceName = serviceName;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushIntervalNanos;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.writer = new Thread(this::write, "span-exporter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void export(Span span) {
+        if (!running || !queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    //spans dropped because the queue was full or the exporter was closed
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    //writes the queued spans, then stops the writer
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    Span span = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (span == null) {
+                        break;
+                    }
+                    batch.add(span);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (!running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void writeBatch(List<Span> batch) {
+        json.setLength(0);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribute("service.name", serviceName, true);
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"advice-tracing\"},\"spans\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendSpan(batch.get(i));
+        }
+        json.append("]}]}]}\n");
+        try {
+            if (out == null || fileSize >= maxFileSize) {
+                roll();
+            }
+            out.write(json.toString());
+            out.flush();
+            fileSize += json.length();
+        } catch (IOException ex) {
+            //the batch is lost, the next batch starts a new file
+            closeFile();
+        }
+    }
+
+    private void appendSpan(Span span) {
+        Method method = span.method;
+        json.append("{\"traceId\":\"");
+        hex(span.traceIdHigh);
+        hex(span.traceIdLow);
+        json.append("\",\"spanId\":\"");
+        hex(span.spanId);
+        json.append("\",\"parentSpanId\":\"");
+        if (span.parentSpanId != 0) {
+            hex(span.parentSpanId);
+        }
+        json.append("\",\"name\":");
+        string(names.computeIfAbsent(method, m -> m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        //SPAN_KIND_INTERNAL, times are strings because they do not fit a JSON number
+        json.append(",\"kind\":1,\"startTimeUnixNano\":\"").append(span.startNanos + epochOffsetNanos)
+                .append("\",\"endTimeUnixNano\":\"").append(span.endNanos + epochOffsetNanos)
+                .append("\",\"attributes\":[");
+        attribute("code.namespace", method.getDeclaringClass().getName(), true);
+        attribute("code.function", method.getName(), false);
+        attribute("thread.name", span.threadName, false);
+        attribute("sampling", span.sampling, false);
+        json.append("],\"status\":{");
+        if (span.errorType != null) {
+            //STATUS_CODE_ERROR
+            json.append("\"code\":2,\"message\":");
+            string(span.errorMessage != null ? span.errorType + ": " + span.errorMessage : span.errorType);
+        }
+        json.append("}}");
+    }
+
+    private void attribute(String key, String value, boolean first) {
+        if (!first) {
+            json.append(',');
+        }
+        json.append("{\"key\":");
+        string(key);
+        json.append(",\"value\":{\"stringValue\":");
+        string(value);
+        json.append("}}");
+    }
+
+    private void hex(long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            json.append(Character.forDigit((int) (value >>> shift) & 0xf, 16));
+        }
+    }
+
+    private void string(String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+        Path current = directory.resolve("spans.json");
+        if (Files.exists(current)) {
+            Files.deleteIfExists(directory.resolve("spans." + (maxFiles - 1) + ".json"));
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                Path file = directory.resolve("spans." + i + ".json");
+                if (Files.exists(file)) {
+                    Files.move(file, directory.resolve("spans." + (i + 1) + ".json"), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (maxFiles > 1) {
+                Files.move(current, directory.resolve("spans.1.json"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        out = Files.newBufferedWriter(current, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        fileSize = 0;
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ex) {
+            //nothing sensible to do, the file is reopened for the next batch
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.advicelogging.io.spring.boot.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Advice that traces the advised calls of a thread as spans of one trace, each call a child of the advised call
+ * it was made from.
+ * <p>
+ * Whether a trace is recorded is decided once, when its root call starts, with the probability
+ * {@code sampleRate}. The calls of a trace that is not sampled create no spans, they only draw ids and read the
+ * clock to find slow calls: a call that takes {@code slowThresholdNanos} or longer is kept as a span, with the
+ * trace id and parent span id it would have had, so the tail latency stays visible at any sample rate. The calls
+ * around a slow call took at least as long, so they are kept too and the slow spans of a trace form a tree.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    private static final String HEAD = "head";
+    private static final String SLOW = "slow";
+
+    private final double sampleRate;
+
+    private final long slowThresholdNanos;
+
+    private final SpanExporter exporter;
+
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    public TracingInterceptor(double sampleRate, long slowThresholdNanos, SpanExporter exporter) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.exporter = exporter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Context context = this.context.get();
+        Span parent = context.current;
+        if (parent == null && (context.unsampledDepth > 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return invokeUnsampled(invocation, context);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Span span = parent == null
+                ? new Span(random.nextLong(), random.nextLong(), spanId(random), 0, invocation.getMethod(), HEAD, System.nanoTime())
+                : new Span(parent.traceIdHigh, parent.traceIdLow, spanId(random), parent.spanId, invocation.getMethod(), HEAD, System.nanoTime());
+        context.current = span;
+        Throwable error = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            span.end(System.nanoTime(), error);
+            context.current = parent;
+            exporter.export(span);
+        }
+    }
+
+    //allocates nothing unless the call turns out to be slow
+    private Object invokeUnsampled(MethodInvocation invocation, Context context) throws Throwable {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (context.unsampledDepth == 0) {
+            context.traceIdHigh = random.nextLong();
+            context.traceIdLow = random.nextLong();
+        }
+        long parentSpanId = context.unsampledSpanId;
+        long spanId = spanId(random);
+        context.unsampledSpanId = spanId;
+        context.unsampledDepth++;
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            context.unsampledDepth--;
+            context.unsampledSpanId = parentSpanId;
+            long end = System.nanoTime();
+            if (end - start >= slowThresholdNanos) {
+                Span span = new Span(context.traceIdHigh, context.traceIdLow, spanId, parentSpanId, invocation.getMethod(), SLOW, start);
+                span.end(end, error);
+                exporter.export(span);
+            }
+        }
+    }
+
+    private static long spanId(ThreadLocalRandom random) {
+        long spanId;
+        do {
+            spanId = random.nextLong();
+        } while (spanId == 0);
+        return spanId;
+    }
+
+    private static final class Context {
+
+        //innermost sampled span of the thread, null outside of sampled traces
+        Span current;
+
+        //advised calls of an unsampled trace the thread is in
+        int unsampledDepth;
+
+        //ids of the unsampled trace and its innermost call, a slow call is exported with them
+        long traceIdHigh;
+        long traceIdLow;
+        long unsampledSpanId;
+    }
+}
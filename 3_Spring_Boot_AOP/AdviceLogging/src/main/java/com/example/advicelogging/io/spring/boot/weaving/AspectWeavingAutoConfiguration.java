@@ -0,0 +1,18 @@
+package com.example.advicelogging.io.spring.boot.weaving;
+
+import org.aspectj.lang.Aspects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//lets the examples run with aspects woven by ajc or the AspectJ agent as well as with Spring proxies
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(Aspects.class)
+public class AspectWeavingAutoConfiguration {
+
+    //static, a bean factory post processor has to be created before the other beans
+    @Bean
+    public static WovenAspectsPostProcessor wovenAspectsPostProcessor() {
+        return new WovenAspectsPostProcessor();
+    }
+}
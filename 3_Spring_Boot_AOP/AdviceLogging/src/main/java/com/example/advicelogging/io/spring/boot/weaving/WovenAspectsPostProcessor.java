@@ -0,0 +1,43 @@
+package com.example.advicelogging.io.spring.boot.weaving;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.aspectj.lang.Aspects;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Makes the Spring bean of an aspect that AspectJ has woven, at build time or at class-load time, the instance
+ * the woven code calls.
+ * <p>
+ * A woven aspect is a singleton created by AspectJ and returned by {@code aspectOf()}. Without this the
+ * {@code @Component} scan would create a second instance, the one with the {@code @Autowired} fields, while the
+ * woven advice runs on the first one. Spring itself skips aspects compiled by ajc when it creates proxies, so a
+ * woven aspect is applied once, by AspectJ. Aspects that are not woven are left to the Spring proxies.
+ */
+public class WovenAspectsPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final Log log = LogFactory.getLog(WovenAspectsPostProcessor.class);
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (!(definition instanceof AnnotatedBeanDefinition && definition instanceof AbstractBeanDefinition)
+                    || !((AnnotatedBeanDefinition) definition).getMetadata().hasAnnotation(Aspect.class.getName())) {
+                continue;
+            }
+            Class<?> aspectClass = ClassUtils.resolveClassName(definition.getBeanClassName(), beanFactory.getBeanClassLoader());
+            //only woven aspects have aspectOf() and hasAspect()
+            if (Aspects.hasAspect(aspectClass)) {
+                ((AbstractBeanDefinition) definition).setInstanceSupplier(() -> Aspects.aspectOf(aspectClass));
+                log.info("Aspect " + aspectClass.getName() + " is woven by AspectJ");
+            }
+        }
+    }
+}
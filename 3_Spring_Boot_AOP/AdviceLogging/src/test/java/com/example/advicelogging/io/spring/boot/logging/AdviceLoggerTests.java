@@ -0,0 +1,201 @@
+package com.example.advicelogging.io.spring.boot.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdviceLoggerTests {
+
+    @Test
+    void formatsTemplateArguments() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdviceLogger logger = new AdviceLogger(16, AdviceLogger.OverflowPolicy.DROP, Channels.newChannel(out));
+
+        logger.log("plain");
+        logger.log("{} and {}", "a", null);
+        logger.log("missing {} {}", "a");
+        logger.log("id {} of {} by {}", Long.MIN_VALUE, "account", Integer.valueOf(7));
+        logger.log("count {}", -42L);
+        logger.log("list {}", Arrays.asList(1, 2));
+        logger.close();
+
+        assertThat(messages(out)).containsExactly(
+                "plain",
+                "a and null",
+                "missing a {}",
+                "id -9223372036854775808 of account by 7",
+                "count -42",
+                "list [1, 2]");
+    }
+
+    @Test
+    void prefixesTimeInDefaultZoneAndThread() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            AdviceLogger logger = new AdviceLogger(16, AdviceLogger.OverflowPolicy.DROP, Channels.newChannel(out));
+            logger.log("message");
+            logger.close();
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+
+        String line = lines(out).get(0);
+        assertThat(line).matches("\\d\\d:\\d\\d:\\d\\d\\.\\d{3} \\[" + Thread.currentThread().getName() + "] message");
+        LocalTime logged = LocalTime.parse(line.substring(0, 12));
+        long drift = Math.abs(ChronoUnit.SECONDS.between(logged, LocalTime.now(ZoneId.of("America/New_York"))));
+        //around midnight the two times are a day apart
+        assertThat(Math.min(drift, TimeUnit.DAYS.toSeconds(1) - drift)).isLessThan(60);
+    }
+
+    @Test
+    void dropsEventsWhenBufferIsFull() throws InterruptedException {
+        BlockingChannel out = new BlockingChannel();
+        AdviceLogger logger = new AdviceLogger(2, AdviceLogger.OverflowPolicy.DROP, out);
+        logger.log("first");
+        out.writing.await(10, TimeUnit.SECONDS);
+
+        logger.log("second");
+        logger.log("third");
+        logger.log("fourth");
+        out.release.countDown();
+        logger.close();
+
+        assertThat(logger.getDropped()).isEqualTo(1);
+        assertThat(messages(out.bytes)).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void blocksCallerWhenBufferIsFull() throws Exception {
+        BlockingChannel out = new BlockingChannel();
+        AdviceLogger logger = new AdviceLogger(2, AdviceLogger.OverflowPolicy.BLOCK, out);
+        logger.log("first");
+        out.writing.await(10, TimeUnit.SECONDS);
+        logger.log("second");
+        logger.log("third");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = executor.submit(() -> logger.log("fourth"));
+            Thread.sleep(100);
+            assertThat(blocked).isNotDone();
+
+            out.release.countDown();
+            blocked.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.close();
+
+        assertThat(logger.getDropped()).isZero();
+        assertThat(messages(out.bytes)).containsExactly("first", "second", "third", "fourth");
+    }
+
+    @Test
+    void dropsEventsAfterClose() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdviceLogger logger = new AdviceLogger(16, AdviceLogger.OverflowPolicy.BLOCK, Channels.newChannel(out));
+        logger.close();
+
+        logger.log("late");
+
+        assertThat(logger.getDropped()).isEqualTo(1);
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void keepsOrderOfEachThreadUnderConcurrentLogging() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdviceLogger logger = new AdviceLogger(64, AdviceLogger.OverflowPolicy.BLOCK, Channels.newChannel(out));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        logger.log("{} {}", thread, Integer.valueOf(i), null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.close();
+
+        int[] next = new int[4];
+        for (String message : messages(out)) {
+            String[] fields = message.split(" ");
+            int thread = Integer.parseInt(fields[0]);
+            assertThat(Integer.parseInt(fields[1])).isEqualTo(next[thread]++);
+        }
+        assertThat(next).containsOnly(10_000);
+        assertThat(logger.getDropped()).isZero();
+    }
+
+    private static List<String> lines(ByteArrayOutputStream out) {
+        return Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+    }
+
+    //the lines without the time and thread prefix
+    private static List<String> messages(ByteArrayOutputStream out) {
+        List<String> messages = new ArrayList<>();
+        for (String line : lines(out)) {
+            messages.add(line.substring(line.indexOf("] ") + 2));
+        }
+        return messages;
+    }
+
+    //holds the drainer in its first write until released
+    private static class BlockingChannel implements WritableByteChannel {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int write(ByteBuffer src) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            int length = src.remaining();
+            byte[] chunk = new byte[length];
+            src.get(chunk);
+            bytes.write(chunk, 0, length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
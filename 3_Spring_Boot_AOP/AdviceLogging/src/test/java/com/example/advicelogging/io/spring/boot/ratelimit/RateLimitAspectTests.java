@@ -0,0 +1,79 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class RateLimitAspectTests {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final Greeter target = new Greeter();
+
+    private Greeter greeter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setClientHeader("X-Api-Key");
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new RateLimitAspect(properties));
+        //the factory sorts the highest precedence aspect in front of the interceptor that binds its arguments
+        factory.addAdvisor(0, ExposeInvocationInterceptor.ADVISOR);
+        greeter = factory.getProxy();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void rejectsClientOverItsLimitWithRetryAfter() {
+        request.addHeader("X-Api-Key", "client");
+        greeter.greet();
+        greeter.greet();
+
+        RateLimitExceededException ex = catchThrowableOfType(greeter::greet, RateLimitExceededException.class);
+
+        assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(ex.getReason()).isEqualTo("Rate limit of Greeter.greet exceeded");
+        assertThat(ex.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1000");
+        assertThat(target.calls).isEqualTo(2);
+    }
+
+    @Test
+    void identifiesClientByAddressWithoutHeader() {
+        request.setRemoteAddr("10.0.0.1");
+        greeter.greet();
+        greeter.greet();
+        assertThat(catchThrowableOfType(greeter::greet, RateLimitExceededException.class)).isNotNull();
+
+        request.addHeader("X-Api-Key", "client");
+
+        assertThat(greeter.greet()).isEqualTo("hello");
+    }
+
+    public static class Greeter {
+
+        int calls;
+
+        //two calls, then one per 1000 seconds
+        @RateLimit(capacity = 2, refillPerSecond = 0.001)
+        public String greet() {
+            calls++;
+            return "hello";
+        }
+    }
+}
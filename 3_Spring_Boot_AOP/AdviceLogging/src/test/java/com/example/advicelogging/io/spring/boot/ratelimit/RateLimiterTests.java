@@ -0,0 +1,95 @@
+package com.example.advicelogging.io.spring.boot.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTests {
+
+    @Test
+    void allowsBurstOfCapacityThenRejects() {
+        RateLimiter limiter = new RateLimiter(3, 1, 1024);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("client")).isZero();
+        }
+        long waitNanos = limiter.tryAcquire("client");
+
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void limitsEachClientOnItsOwn() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1024);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 100, 1024);
+        assertThat(limiter.tryAcquire("client")).isZero();
+        long waitNanos = limiter.tryAcquire("client");
+        assertThat(waitNanos).isPositive();
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(limiter.tryAcquire("client")).isZero();
+    }
+
+    @Test
+    void givesEvictedClientFullBucket() {
+        RateLimiter limiter = new RateLimiter(1, 1, 4);
+        assertThat(limiter.tryAcquire("a")).isZero();
+
+        //the table holds 8 clients, a's bucket is the closest to full and goes first
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void grantsExactlyCapacityToConcurrentCallers() throws Exception {
+        //one token per 1000 seconds, so no token is added while the test runs
+        RateLimiter limiter = new RateLimiter(100, 0.001, 1024);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.tryAcquire("client") == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(granted).hasValue(100);
+    }
+}
@@ -1,17 +1,65 @@
 package com.example.after.io.spring.boot.aspect;
 
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import com.example.after.io.spring.boot.audit.AuditJournal;
+import com.example.after.io.spring.boot.audit.AuditRecord;
+import com.example.after.io.spring.boot.model.Employee;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Aspect
 @Component
 public class EmployeeServiceAspect {
 
+    @Autowired
+    AdviceLogger adviceLogger;
+
+    @Autowired
+    AuditJournal auditJournal;
+
     @After(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.* (..)) && args(empId, firstName, secondName)")
     public void beforeAdvice(JoinPoint joinPoint, String empId, String firstName, String secondName) {
-        System.out.println("After method:" + joinPoint.getSignature());
-        System.out.println("Creating Employee with first name - " + firstName + ", second name - " + secondName + " and id - " + empId);
+        adviceLogger.log("After method:{}", joinPoint.getSignature());
+        adviceLogger.log("Creating Employee with first name - {}, second name - {} and id - {}", firstName, secondName, empId);
+    }
+
+    //a bulk upload is advised once per batch, not once per employee
+    @After(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.createEmployees(..)) && args(employees)")
+    public void afterBatchAdvice(JoinPoint joinPoint, List<Employee> employees) {
+        adviceLogger.log("After method:{}", joinPoint.getSignature());
+        adviceLogger.log("Created {} Employees", employees.size());
+    }
+
+    @After(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.deleteEmployee(..)) && args(empId)")
+    public void afterDeleteAdvice(JoinPoint joinPoint, String empId) {
+        adviceLogger.log("After method:{}", joinPoint.getSignature());
+        adviceLogger.log("Removing Employee with id - {}", empId);
+    }
+
+    //@After also runs when the call throws, the journal only records what the service actually did
+    @AfterReturning(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.createEmployee(..))", returning = "created")
+    public void auditCreateAdvice(Employee created) {
+        auditJournal.append(AuditRecord.Operation.CREATE, created.getEmpId(), created.getFirstName(), created.getSecondName());
+    }
+
+    @AfterReturning(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.createEmployees(..))", returning = "created")
+    public void auditBatchAdvice(List<Employee> created) {
+        for (Employee employee : created) {
+            auditJournal.append(AuditRecord.Operation.CREATE, employee.getEmpId(), employee.getFirstName(), employee.getSecondName());
+        }
+    }
+
+    //an unknown id removes nothing and is not recorded
+    @AfterReturning(value = "execution(* com.example.after.io.spring.boot.service.EmployeeService.deleteEmployee(..))", returning = "removed")
+    public void auditDeleteAdvice(Employee removed) {
+        if (removed != null) {
+            auditJournal.append(AuditRecord.Operation.DELETE, removed.getEmpId(), null, null);
+        }
     }
 }
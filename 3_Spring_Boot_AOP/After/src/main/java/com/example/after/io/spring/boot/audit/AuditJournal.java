@@ -0,0 +1,274 @@
+package com.example.after.io.spring.boot.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of employee operations in memory-mapped segment files.
+ * <p>
+ * {@link #append} only puts the record on a bounded queue, so the advised call does not wait for the disk. One
+ * writer thread drains the queue in batches and encodes each record straight into the mapped segment, in the fixed
+ * layout described by {@link AuditRecord}. Records are committed in groups: the segment is forced to disk as soon as
+ * the queue is empty, and at least once per {@code audit.journal.commit-interval} while records keep coming, so one
+ * fsync covers every record written since the previous one. {@link #getDurableSequence()} is the last record known
+ * to be on disk.
+ * <p>
+ * A segment is named after the sequence of its first record and holds {@code audit.journal.segment-size} bytes of
+ * records. When it is full the writer forces it and maps the next one. On startup the writer continues after the
+ * last record of the newest segment whose checksum is valid, a record torn by a crash is overwritten.
+ */
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".journal";
+
+    //records taken off the queue at once, between two checks of the commit interval
+    private static final int MAX_BATCH = 1024;
+
+    //length stored for a name that is null, an empty name has length 0
+    static final byte NULL_LENGTH = -1;
+
+    @Value("${audit.journal.directory:audit}")
+    String directory;
+
+    @Value("${audit.journal.segment-size:64MB}")
+    DataSize segmentSize;
+
+    //longest a record waits for its fsync while records keep coming
+    @Value("${audit.journal.commit-interval:5ms}")
+    Duration commitInterval;
+
+    //a full queue makes append wait for the writer instead of dropping records
+    @Value("${audit.journal.queue-capacity:65536}")
+    int queueCapacity;
+
+    private BlockingQueue<AuditRecord> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private volatile long durableSequence = -1;
+
+    //everything below is only used by the writer thread, and by open() before it starts
+    private MappedByteBuffer segment;
+    private int segmentRecords;
+    private int index;
+    private long nextSequence;
+    private final CRC32C crc = new CRC32C();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    @PostConstruct
+    public void open() throws IOException {
+        long records = segmentSize.toBytes() / AuditRecord.SIZE;
+        if (records < 1 || records > Integer.MAX_VALUE / AuditRecord.SIZE) {
+            throw new IllegalStateException("audit.journal.segment-size must be between " + AuditRecord.SIZE + " bytes and 2GB");
+        }
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        long[] segments = segments(dir);
+        if (segments.length == 0) {
+            map(dir, 0);
+        } else {
+            recover(dir, segments[segments.length - 1]);
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::write, "audit-journal");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit journal {} continues at sequence {}", dir.toAbsolutePath(), nextSequence);
+    }
+
+    //writes and forces the queued records, then stops the writer
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void append(AuditRecord.Operation operation, String empId, String firstName, String secondName) {
+        AuditRecord record = new AuditRecord(-1, System.currentTimeMillis(), operation, empId, firstName, secondName);
+        try {
+            do {
+                if (!running) {
+                    throw new IllegalStateException("Audit journal is not running, " + operation + " of employee " + empId + " was not recorded");
+                }
+            } while (!queue.offer(record, 100, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the audit journal", ex);
+        }
+    }
+
+    //sequence of the last record forced to disk, -1 when there is none
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    //reads the journal from the given sequence on, also while it is written
+    public AuditJournalReader reader(long fromSequence) {
+        return new AuditJournalReader(Paths.get(directory), fromSequence);
+    }
+
+    private void write() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        long commitNanos = commitInterval.toNanos();
+        long lastCommit = System.nanoTime();
+        boolean dirty = false;
+        try {
+            while (running || !queue.isEmpty()) {
+                AuditRecord first = queue.poll(commitNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    for (AuditRecord record : batch) {
+                        write(record);
+                    }
+                    batch.clear();
+                    dirty = true;
+                }
+                //records that arrive during a force wait for the next one, which then covers all of them
+                long now = System.nanoTime();
+                if (dirty && (queue.isEmpty() || now - lastCommit >= commitNanos)) {
+                    commit();
+                    lastCommit = now;
+                    dirty = false;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Audit journal failed at sequence {}, no further records are written", nextSequence, ex);
+        } finally {
+            running = false;
+        }
+    }
+
+    private void write(AuditRecord record) throws IOException {
+        if (index == segmentRecords) {
+            commit();
+            map(Paths.get(directory), nextSequence);
+        }
+        int offset = index * AuditRecord.SIZE;
+        segment.putLong(offset + AuditRecord.SEQUENCE, nextSequence);
+        segment.putLong(offset + AuditRecord.TIME, record.getTimeMillis());
+        segment.put(offset + AuditRecord.OPERATION, (byte) record.getOperation().ordinal());
+        segment.put(offset + AuditRecord.LENGTHS, encode(record.getEmpId(), offset + AuditRecord.EMP_ID, AuditRecord.EMP_ID_SIZE));
+        segment.put(offset + AuditRecord.LENGTHS + 1, encode(record.getFirstName(), offset + AuditRecord.FIRST_NAME, AuditRecord.NAME_SIZE));
+        segment.put(offset + AuditRecord.LENGTHS + 2, encode(record.getSecondName(), offset + AuditRecord.SECOND_NAME, AuditRecord.NAME_SIZE));
+        //the checksum goes last, a reader that sees a valid checksum sees the whole record
+        segment.limit(offset + AuditRecord.SIZE).position(offset + AuditRecord.SEQUENCE);
+        crc.reset();
+        crc.update(segment);
+        segment.clear();
+        segment.putInt(offset + AuditRecord.CRC, (int) crc.getValue());
+        index++;
+        nextSequence++;
+    }
+
+    //encodes into the field of the mapped record and pads it with zeros, returns the encoded length
+    private byte encode(String value, int offset, int size) {
+        segment.limit(offset + size).position(offset);
+        byte length = NULL_LENGTH;
+        if (value != null) {
+            //stops before the first character that does not fit
+            encoder.reset().encode(CharBuffer.wrap(value), segment, true);
+            length = (byte) (segment.position() - offset);
+        }
+        while (segment.hasRemaining()) {
+            segment.put((byte) 0);
+        }
+        segment.clear();
+        return length;
+    }
+
+    private void commit() {
+        segment.force();
+        durableSequence = nextSequence - 1;
+    }
+
+    private void map(Path dir, long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(dir, firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //a segment written with another segment-size keeps its own size
+            long size = channel.size() >= AuditRecord.SIZE ? channel.size() : segmentSize.toBytes();
+            segmentRecords = (int) (size / AuditRecord.SIZE);
+            //the mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * AuditRecord.SIZE);
+        }
+        index = 0;
+        nextSequence = firstSequence;
+    }
+
+    private void recover(Path dir, long firstSequence) throws IOException {
+        map(dir, firstSequence);
+        while (index < segmentRecords && AuditJournalReader.isValid(segment, index * AuditRecord.SIZE, nextSequence, crc)) {
+            index++;
+            nextSequence++;
+        }
+        //the OS may have written later pages of a torn write, clear what was written after the last valid record
+        for (int i = index; i < segmentRecords && !neverWritten(i * AuditRecord.SIZE); i++) {
+            for (int offset = i * AuditRecord.SIZE; offset < (i + 1) * AuditRecord.SIZE; offset += Long.BYTES) {
+                segment.putLong(offset, 0);
+            }
+        }
+        durableSequence = nextSequence - 1;
+        if (index == segmentRecords) {
+            segment.force();
+            map(dir, nextSequence);
+        }
+    }
+
+    private boolean neverWritten(int offset) {
+        return segment.getInt(offset + AuditRecord.CRC) == 0 && segment.getLong(offset + AuditRecord.TIME) == 0;
+    }
+
+    static Path segmentFile(Path dir, long firstSequence) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    //first sequences of the segments in the directory, oldest first
+    static long[] segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return new long[0];
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .mapToLong(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.after.io.spring.boot.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the records of an {@link AuditJournal} in sequence order, from any sequence on.
+ * <p>
+ * The segments are mapped read-only, so reading shares the page cache with the writer and does not copy the
+ * files. {@link #next()} returns null at the end of what has been written so far; calling it again later returns
+ * the records written since, which is how {@link #next(long, TimeUnit)} follows the journal. A record whose checksum
+ * does not match, because it is being written or was torn by a crash, also ends what can be read.
+ * <p>
+ * A reader is used by one thread at a time.
+ */
+public class AuditJournalReader {
+
+    private static final long POLL_MILLIS = 10;
+
+    private final Path directory;
+
+    private final CRC32C crc = new CRC32C();
+
+    private long nextSequence;
+
+    private MappedByteBuffer segment;
+
+    private long segmentFirst = -1;
+
+    private int segmentRecords;
+
+    public AuditJournalReader(Path directory, long fromSequence) {
+        this.directory = directory;
+        this.nextSequence = Math.max(0, fromSequence);
+    }
+
+    //sequence of the record the next call returns
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    //the next record, or null when it has not been written yet
+    public AuditRecord next() throws IOException {
+        if (segment == null || nextSequence - segmentFirst >= segmentRecords) {
+            if (!openSegment() || nextSequence - segmentFirst >= segmentRecords) {
+                return null;
+            }
+        }
+        int offset = (int) (nextSequence - segmentFirst) * AuditRecord.SIZE;
+        if (!isValid(segment, offset, nextSequence, crc)) {
+            return null;
+        }
+        AuditRecord record = new AuditRecord(nextSequence,
+                segment.getLong(offset + AuditRecord.TIME),
+                AuditRecord.Operation.values()[segment.get(offset + AuditRecord.OPERATION)],
+                decode(offset + AuditRecord.EMP_ID, segment.get(offset + AuditRecord.LENGTHS)),
+                decode(offset + AuditRecord.FIRST_NAME, segment.get(offset + AuditRecord.LENGTHS + 1)),
+                decode(offset + AuditRecord.SECOND_NAME, segment.get(offset + AuditRecord.LENGTHS + 2)));
+        nextSequence++;
+        return record;
+    }
+
+    //waits up to the timeout for the next record to be written
+    public AuditRecord next(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        AuditRecord record = next();
+        while (record == null && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+            record = next();
+        }
+        return record;
+    }
+
+    //maps the segment that holds the next sequence, false when it is already mapped or does not exist yet
+    private boolean openSegment() throws IOException {
+        long[] segments = AuditJournal.segments(directory);
+        int i = segments.length - 1;
+        while (i >= 0 && segments[i] > nextSequence) {
+            i--;
+        }
+        if (i < 0) {
+            if (segments.length == 0) {
+                return false;
+            }
+            //the records before the oldest segment are gone, continue with the oldest one there is
+            i = 0;
+            nextSequence = segments[0];
+        }
+        if (segments[i] == segmentFirst) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(AuditJournal.segmentFile(directory, segments[i]), StandardOpenOption.READ)) {
+            //created by the writer but not mapped yet
+            if (channel.size() < AuditRecord.SIZE) {
+                return false;
+            }
+            segmentRecords = (int) (channel.size() / AuditRecord.SIZE);
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) segmentRecords * AuditRecord.SIZE);
+        }
+        segmentFirst = segments[i];
+        return true;
+    }
+
+    private String decode(int offset, byte length) {
+        if (length == AuditJournal.NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer field = segment.duplicate();
+        field.position(offset);
+        field.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static boolean isValid(ByteBuffer segment, int offset, long sequence, CRC32C crc) {
+        ByteBuffer record = segment.duplicate();
+        record.limit(offset + AuditRecord.SIZE).position(offset + AuditRecord.SEQUENCE);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue() == segment.getInt(offset + AuditRecord.CRC)
+                && segment.getLong(offset + AuditRecord.SEQUENCE) == sequence
+                && segment.get(offset + AuditRecord.OPERATION) >= 0
+                && segment.get(offset + AuditRecord.OPERATION) < AuditRecord.Operation.values().length;
+    }
+}
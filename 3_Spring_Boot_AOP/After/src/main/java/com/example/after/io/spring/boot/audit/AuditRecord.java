@@ -0,0 +1,79 @@
+package com.example.after.io.spring.boot.audit;
+
+/**
+ * One employee operation in the audit journal.
+ * <p>
+ * Every record takes {@link #SIZE} bytes in a segment file, laid out as below. Names that do not fit their field
+ * are cut at a character boundary.
+ * <pre>
+ *   0  int   CRC32C of bytes 4..127, written last
+ *   4  long  sequence
+ *  12  long  time in epoch milliseconds
+ *  20  byte  operation
+ *  21  byte  length of empId in bytes
+ *  22  byte  length of firstName in bytes
+ *  23  byte  length of secondName in bytes
+ *  24        empId, UTF-8, 32 bytes
+ *  56        firstName, UTF-8, 36 bytes
+ *  92        secondName, UTF-8, 36 bytes
+ * </pre>
+ */
+public class AuditRecord {
+
+    public enum Operation { CREATE, DELETE }
+
+    static final int SIZE = 128;
+
+    static final int CRC = 0;
+    static final int SEQUENCE = 4;
+    static final int TIME = 12;
+    static final int OPERATION = 20;
+    static final int LENGTHS = 21;
+    static final int EMP_ID = 24;
+    static final int FIRST_NAME = 56;
+    static final int SECOND_NAME = 92;
+
+    static final int EMP_ID_SIZE = FIRST_NAME - EMP_ID;
+    static final int NAME_SIZE = SECOND_NAME - FIRST_NAME;
+
+    private final long sequence;
+    private final long timeMillis;
+    private final Operation operation;
+    private final String empId;
+    private final String firstName;
+    private final String secondName;
+
+    public AuditRecord(long sequence, long timeMillis, Operation operation, String empId, String firstName, String secondName) {
+        this.sequence = sequence;
+        this.timeMillis = timeMillis;
+        this.operation = operation;
+        this.empId = empId;
+        this.firstName = firstName;
+        this.secondName = secondName;
+    }
+
+    //-1 until the journal writer has given the record its place in the journal
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getEmpId() {
+        return empId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getSecondName() {
+        return secondName;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.after.io.spring.boot.controller;
+
+import com.example.after.io.spring.boot.audit.AuditJournal;
+import com.example.after.io.spring.boot.audit.AuditJournalReader;
+import com.example.after.io.spring.boot.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    //replays the journal from a sequence on, the next page starts after the sequence of the last record
+    @GetMapping("/audit")
+    public List<AuditRecord> audit(@RequestParam(value = "from", defaultValue = "0") long from,
+                                   @RequestParam(value = "limit", defaultValue = "100") int limit) throws IOException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        AuditJournalReader reader = auditJournal.reader(from);
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditRecord record = reader.next(); record != null; record = records.size() < limit ? reader.next() : null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
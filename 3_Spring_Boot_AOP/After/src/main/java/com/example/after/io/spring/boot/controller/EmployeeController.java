@@ -1,28 +1,67 @@
 package com.example.after.io.spring.boot.controller;
 
+import com.example.advicelogging.io.spring.boot.ratelimit.RateLimit;
+import com.example.after.io.spring.boot.ingest.EmployeeIngester;
 import com.example.after.io.spring.boot.model.Employee;
 import com.example.after.io.spring.boot.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 public class EmployeeController {
 
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private EmployeeIngester employeeIngester;
+
+    //a client can add 20 employees in a burst and 10 per second after that, beyond that it gets 429
+    @RateLimit(capacity = 20, refillPerSecond = 10)
     @RequestMapping(value = "/add/employee", method = RequestMethod.POST)
     public Employee addEmployee(@RequestParam("empId") String empId, @RequestParam("firstName") String firstName, @RequestParam("secondName") String secondName) {
         return employeeService.createEmployee(empId, firstName, secondName);
     }
 
+    //bulk upload as NDJSON or a JSON array, answered with one NDJSON result line per employee while the body is read
+    @RateLimit(capacity = 5, refillPerSecond = 1)
+    @PostMapping(value = "/add/employees", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public void addEmployees(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        employeeIngester.ingest(request.getInputStream(), response.getOutputStream());
+    }
+
+    @RateLimit(capacity = 20, refillPerSecond = 10)
     @RequestMapping(value = "/remove/employee", method = RequestMethod.GET)
     public String removeEmployee(@RequestParam("empId") String empId) {
         employeeService.deleteEmployee(empId);
         return "Employee removed";
     }
 
+    //employees whose first or second name starts with the prefix, ignoring case
+    @GetMapping("/employees/search")
+    public List<Employee> searchEmployees(@RequestParam("prefix") String prefix,
+                                          @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "offset must be at least 0 and limit between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return employeeService.searchEmployees(prefix, offset, limit);
+    }
+
 }
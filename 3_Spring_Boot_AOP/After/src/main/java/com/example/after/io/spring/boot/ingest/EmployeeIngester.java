@@ -0,0 +1,115 @@
+package com.example.after.io.spring.boot.ingest;
+
+import com.example.after.io.spring.boot.model.Employee;
+import com.example.after.io.spring.boot.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates employees from a stream of JSON records, either newline delimited (NDJSON) or one JSON array, and writes
+ * one NDJSON result line per record.
+ * <p>
+ * Records are parsed one at a time and handed to {@link EmployeeService#createEmployees(List)} in batches of
+ * {@code employees.ingest.batch-size}. The results of a batch are written and flushed before the next batch is
+ * read, so memory use does not depend on the size of the body. A record that is not an employee gets an error
+ * result and the others go on; invalid JSON ends the stream with an error result.
+ */
+@Component
+public class EmployeeIngester {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Value("${employees.ingest.batch-size:500}")
+    int batchSize;
+
+    //returns the number of records read
+    public long ingest(InputStream in, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            //one result per line, without the space Jackson puts between root values
+            generator.setRootValueSeparator(null);
+            List<Employee> batch = new ArrayList<>(batchSize);
+            List<Long> indexes = new ArrayList<>(batchSize);
+            long index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                for (; token != null && token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+                    JsonNode record = parser.readValueAsTree();
+                    String error = null;
+                    try {
+                        Employee employee = objectMapper.treeToValue(record, Employee.class);
+                        if (employee == null || employee.getEmpId() == null || employee.getEmpId().isEmpty()) {
+                            error = "empId is required";
+                        } else {
+                            batch.add(employee);
+                            indexes.add(index);
+                        }
+                    } catch (JsonProcessingException ex) {
+                        error = "not an employee: " + ex.getOriginalMessage();
+                    }
+                    if (error != null) {
+                        writeResult(generator, index, null, error);
+                    }
+                    if (batch.size() == batchSize) {
+                        createBatch(batch, indexes, generator);
+                    }
+                }
+                createBatch(batch, indexes, generator);
+            } catch (JsonProcessingException ex) {
+                //the records read so far are created, the rest of the body cannot be parsed
+                createBatch(batch, indexes, generator);
+                writeResult(generator, index, null, "invalid JSON: " + ex.getOriginalMessage());
+            }
+            return index;
+        }
+    }
+
+    private void createBatch(List<Employee> batch, List<Long> indexes, JsonGenerator generator) throws IOException {
+        if (!batch.isEmpty()) {
+            List<Employee> created = employeeService.createEmployees(batch);
+            for (int i = 0; i < created.size(); i++) {
+                writeResult(generator, indexes.get(i), created.get(i).getEmpId(), null);
+            }
+            batch.clear();
+            indexes.clear();
+        }
+        generator.flush();
+    }
+
+    private static void writeResult(JsonGenerator generator, long index, String empId, String error) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        if (empId != null) {
+            generator.writeStringField("empId", empId);
+        }
+        generator.writeStringField("status", error == null ? "created" : "error");
+        if (error != null) {
+            generator.writeStringField("error", error);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
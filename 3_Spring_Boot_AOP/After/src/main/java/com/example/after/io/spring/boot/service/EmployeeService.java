@@ -1,19 +1,48 @@
 package com.example.after.io.spring.boot.service;
 
 import com.example.after.io.spring.boot.model.Employee;
+import com.example.after.io.spring.boot.store.EmployeeStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class EmployeeService {
 
+    @Autowired
+    EmployeeStore employeeStore;
+
     public Employee createEmployee(String empId, String firstName, String secondName) {
         Employee emp = new Employee();
         emp.setEmpId(empId);
         emp.setFirstName(firstName);
         emp.setSecondName(secondName);
+        employeeStore.put(emp);
         return emp;
     }
 
-    public void deleteEmployee(String empId) {
+    //creates the employees of a bulk upload, the advice runs once for the whole batch
+    public List<Employee> createEmployees(List<Employee> employees) {
+        List<Employee> created = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            Employee emp = new Employee();
+            emp.setEmpId(employee.getEmpId());
+            emp.setFirstName(employee.getFirstName());
+            emp.setSecondName(employee.getSecondName());
+            employeeStore.put(emp);
+            created.add(emp);
+        }
+        return created;
+    }
+
+    //returns the removed employee, or null when there is none with that id
+    public Employee deleteEmployee(String empId) {
+        return employeeStore.remove(empId);
+    }
+
+    public List<Employee> searchEmployees(String prefix, int offset, int limit) {
+        return employeeStore.search(prefix, offset, limit);
     }
 }
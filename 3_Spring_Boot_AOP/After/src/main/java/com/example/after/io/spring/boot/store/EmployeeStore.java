@@ -0,0 +1,139 @@
+package com.example.after.io.spring.boot.store;
+
+import com.example.after.io.spring.boot.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory employees by id, with an index of their first and second names for prefix searches.
+ * <p>
+ * The employees are kept in a {@link ConcurrentHashMap}. The index is a {@link ConcurrentSkipListSet} of
+ * {@code lower case name + '\0' + empId} keys, one for the first and one for the second name of each employee, so
+ * the names starting with a prefix are one contiguous range of the set. A search seeks to the prefix and walks the
+ * range in name order, it never locks and costs the entries it skips plus the entries it returns.
+ * <p>
+ * Writes to the same empId are serialized by the map, which keeps the index in step with the map. A search that
+ * runs concurrently with a write sees the employee either before or after the write.
+ */
+@Component
+public class EmployeeStore {
+
+    //sorts below every other character, so "ann" + SEPARATOR comes before "anna" + SEPARATOR
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentHashMap<String, Employee> employees = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<String> names = new ConcurrentSkipListSet<>();
+
+    public Employee get(String empId) {
+        return employees.get(empId);
+    }
+
+    //adds the employee, or replaces the employee with the same id
+    public void put(Employee employee) {
+        employees.compute(employee.getEmpId(), (empId, previous) -> {
+            if (previous != null && sameNames(previous, employee)) {
+                return employee;
+            }
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(employee);
+            return employee;
+        });
+    }
+
+    //the removed employee, or null when there is none with that id
+    public Employee remove(String empId) {
+        Employee[] removed = new Employee[1];
+        employees.computeIfPresent(empId, (id, employee) -> {
+            unindex(employee);
+            removed[0] = employee;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public int size() {
+        return employees.size();
+    }
+
+    /**
+     * Employees whose first or second name starts with the prefix, ignoring case, ordered by the matching name
+     * and then by empId. An employee whose names both match is returned once, at its first name in that order.
+     * The first {@code offset} employees are skipped, so deep pages cost more than the first one.
+     */
+    public List<Employee> search(String prefix, int offset, int limit) {
+        String from = normalize(prefix);
+        List<Employee> found = new ArrayList<>(Math.min(limit, 64));
+        Set<String> seen = new HashSet<>();
+        int skipped = 0;
+        for (String key : names.tailSet(from)) {
+            if (found.size() >= limit || !key.startsWith(from)) {
+                break;
+            }
+            int separator = key.indexOf(SEPARATOR);
+            String empId = key.substring(separator + 1);
+            Employee employee = employees.get(empId);
+            //removed or renamed since the key was read
+            if (employee == null || !matches(employee, from) || !seen.add(empId)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            found.add(employee);
+        }
+        return found;
+    }
+
+    private void index(Employee employee) {
+        if (employee.getFirstName() != null) {
+            names.add(key(employee.getFirstName(), employee.getEmpId()));
+        }
+        if (employee.getSecondName() != null) {
+            names.add(key(employee.getSecondName(), employee.getEmpId()));
+        }
+    }
+
+    private void unindex(Employee employee) {
+        if (employee.getFirstName() != null) {
+            names.remove(key(employee.getFirstName(), employee.getEmpId()));
+        }
+        if (employee.getSecondName() != null) {
+            names.remove(key(employee.getSecondName(), employee.getEmpId()));
+        }
+    }
+
+    private static boolean matches(Employee employee, String prefix) {
+        return startsWith(employee.getFirstName(), prefix) || startsWith(employee.getSecondName(), prefix);
+    }
+
+    //ignores case without creating a lower case copy of the name, searches check every employee they return
+    private static boolean startsWith(String name, String prefix) {
+        return name != null && name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean sameNames(Employee previous, Employee employee) {
+        return Objects.equals(previous.getFirstName(), employee.getFirstName())
+                && Objects.equals(previous.getSecondName(), employee.getSecondName());
+    }
+
+    private static String key(String name, String empId) {
+        return normalize(name) + SEPARATOR + empId;
+    }
+
+    //the separator is dropped from names, a name containing it would otherwise end its key early
+    private static String normalize(String name) {
+        return name.replace(String.valueOf(SEPARATOR), "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.after.io.spring.boot.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private final List<AuditJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (AuditJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void readsBackAppendedRecords() throws Exception {
+        AuditJournal journal = open(DataSize.ofMegabytes(1), 1024);
+
+        journal.append(AuditRecord.Operation.CREATE, "e1", "Anna", "Smith");
+        journal.append(AuditRecord.Operation.DELETE, "e1", null, "");
+        journal.close();
+
+        assertThat(journal.getDurableSequence()).isEqualTo(1);
+        List<AuditRecord> records = readAll(0);
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getSequence()).isZero();
+        assertThat(records.get(0).getOperation()).isEqualTo(AuditRecord.Operation.CREATE);
+        assertThat(records.get(0).getEmpId()).isEqualTo("e1");
+        assertThat(records.get(0).getFirstName()).isEqualTo("Anna");
+        assertThat(records.get(0).getSecondName()).isEqualTo("Smith");
+        assertThat(records.get(1).getOperation()).isEqualTo(AuditRecord.Operation.DELETE);
+        assertThat(records.get(1).getFirstName()).isNull();
+        assertThat(records.get(1).getSecondName()).isEmpty();
+    }
+
+    @Test
+    void cutsLongNamesAtCharacterBoundary() throws Exception {
+        AuditJournal journal = open(DataSize.ofMegabytes(1), 1024);
+
+        //two bytes each, 18 of them fill the 36 byte field
+        journal.append(AuditRecord.Operation.CREATE, "e1", "éééééééééééééééééééé", null);
+        journal.close();
+
+        assertThat(readAll(0).get(0).getFirstName()).isEqualTo("éééééééééééééééééé");
+    }
+
+    @Test
+    void continuesInNewSegmentWhenSegmentIsFull() throws Exception {
+        //two records per segment
+        AuditJournal journal = open(DataSize.ofBytes(2 * AuditRecord.SIZE), 1024);
+
+        for (int i = 0; i < 5; i++) {
+            journal.append(AuditRecord.Operation.CREATE, "e" + i, "Anna", "Smith");
+        }
+        journal.close();
+
+        assertThat(AuditJournal.segments(directory)).containsExactly(0, 2, 4);
+        assertThat(readAll(0)).extracting(AuditRecord::getEmpId).containsExactly("e0", "e1", "e2", "e3", "e4");
+        assertThat(readAll(3)).extracting(AuditRecord::getEmpId).containsExactly("e3", "e4");
+    }
+
+    @Test
+    void overwritesTornRecordAfterRestart() throws Exception {
+        AuditJournal journal = open(DataSize.ofMegabytes(1), 1024);
+        for (int i = 0; i < 3; i++) {
+            journal.append(AuditRecord.Operation.CREATE, "e" + i, "Anna", "Smith");
+        }
+        journal.close();
+        try (FileChannel channel = FileChannel.open(AuditJournal.segmentFile(directory, 0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 2L * AuditRecord.SIZE + AuditRecord.EMP_ID);
+        }
+
+        AuditJournal restarted = open(DataSize.ofMegabytes(1), 1024);
+        assertThat(restarted.getDurableSequence()).isEqualTo(1);
+        restarted.append(AuditRecord.Operation.DELETE, "e9", null, null);
+        restarted.close();
+
+        assertThat(readAll(0)).extracting(AuditRecord::getEmpId).containsExactly("e0", "e1", "e9");
+    }
+
+    @Test
+    void followsJournalWhileItIsWritten() throws Exception {
+        AuditJournal journal = open(DataSize.ofMegabytes(1), 1024);
+        AuditJournalReader reader = journal.reader(0);
+        assertThat(reader.next()).isNull();
+
+        journal.append(AuditRecord.Operation.CREATE, "e1", "Anna", "Smith");
+
+        AuditRecord record = reader.next(5, TimeUnit.SECONDS);
+        assertThat(record.getEmpId()).isEqualTo("e1");
+        assertThat(reader.getNextSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAppendWhenClosed() throws Exception {
+        AuditJournal journal = open(DataSize.ofMegabytes(1), 1024);
+        journal.close();
+
+        assertThatThrownBy(() -> journal.append(AuditRecord.Operation.CREATE, "e1", "Anna", "Smith"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CREATE of employee e1 was not recorded");
+    }
+
+    @Test
+    void waitsForRoomInFullQueueInsteadOfDropping() throws Exception {
+        //every append beyond the first waits for the writer to take the previous one
+        AuditJournal journal = open(DataSize.ofBytes(64 * AuditRecord.SIZE), 1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        journal.append(AuditRecord.Operation.CREATE, thread + "-" + i, "Anna", "Smith");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        journal.close();
+
+        List<AuditRecord> records = readAll(0);
+        assertThat(records).hasSize(2_000);
+        Set<String> empIds = new HashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i).getSequence()).isEqualTo(i);
+            empIds.add(records.get(i).getEmpId());
+        }
+        assertThat(empIds).hasSize(2_000);
+        assertThat(journal.getDurableSequence()).isEqualTo(1_999);
+    }
+
+    private AuditJournal open(DataSize segmentSize, int queueCapacity) throws IOException {
+        AuditJournal journal = new AuditJournal();
+        journal.directory = directory.toString();
+        journal.segmentSize = segmentSize;
+        journal.commitInterval = Duration.ofMillis(5);
+        journal.queueCapacity = queueCapacity;
+        journal.open();
+        journals.add(journal);
+        return journal;
+    }
+
+    private List<AuditRecord> readAll(long fromSequence) throws IOException {
+        AuditJournalReader reader = new AuditJournalReader(directory, fromSequence);
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
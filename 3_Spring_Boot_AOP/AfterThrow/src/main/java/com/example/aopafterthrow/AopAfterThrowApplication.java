@@ -21,8 +21,8 @@ public class AopAfterThrowApplication {
             if (account != null)
                 System.out.println(account.getAccountNumber() + "\t" + account.getAccountType());
         } catch (Exception e) {
+            //the advice has counted the exception, its stack trace is logged with the first summary
             System.out.println(e.getMessage());
-            e.printStackTrace();
         }
     }
 
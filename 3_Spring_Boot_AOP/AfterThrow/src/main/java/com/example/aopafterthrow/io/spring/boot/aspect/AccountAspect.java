@@ -1,17 +1,24 @@
 package com.example.aopafterthrow.io.spring.boot.aspect;
 
+import com.example.aopafterthrow.io.spring.boot.errors.ExceptionAggregator;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
 public class AccountAspect {
+
+    @Autowired
+    ExceptionAggregator exceptionAggregator;
+
     //implementing after throwing advice
+    //the exception is only counted here, the aggregator logs a summary of the exceptions periodically
     @AfterThrowing(value = "execution(* com.example.aopafterthrow.io.spring.boot.service.impl.AccountServiceImpl.*(..))", throwing = "ex")
     public void afterThrowingAdvice(JoinPoint joinPoint, Exception ex) {
-        System.out.println("After Throwing exception in method:" + joinPoint.getSignature());
-        System.out.println("Exception is:" + ex.getMessage());
+        exceptionAggregator.record(((MethodSignature) joinPoint.getSignature()).getMethod(), ex);
     }
 }
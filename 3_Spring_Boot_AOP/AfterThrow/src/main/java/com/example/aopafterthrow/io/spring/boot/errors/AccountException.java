@@ -0,0 +1,14 @@
+package com.example.aopafterthrow.io.spring.boot.errors;
+
+/**
+ * Exception thrown by the account service for invalid input.
+ * <p>
+ * Filling in the stack trace is most of the cost of throwing an exception. On a hot path that fails often and
+ * whose failures are only counted, the stack trace can be left out.
+ */
+public class AccountException extends Exception {
+
+    public AccountException(String message, boolean fillStackTrace) {
+        super(message, null, false, fillStackTrace);
+    }
+}
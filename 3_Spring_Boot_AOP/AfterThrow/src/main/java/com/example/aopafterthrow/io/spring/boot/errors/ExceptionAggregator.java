@@ -0,0 +1,195 @@
+package com.example.aopafterthrow.io.spring.boot.errors;
+
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the exceptions thrown by advised methods and logs a summary per interval instead of every exception.
+ * <p>
+ * Exceptions are grouped by method, exception type and message template, the message with every word that
+ * contains a digit replaced by {}. Each group counts in a {@link LongAdder}, so threads failing at the same time
+ * do not contend on one counter. The first exception of a group in each interval is kept as its sample and its
+ * stack trace is logged with the summary of that interval, unless it is the same trace as the one logged last.
+ * Each method and exception type keeps at most {@code exceptions.max-buckets} message templates, so a method
+ * that puts unique words into its messages cannot crowd out the groups of the other methods.
+ */
+@Component
+public class ExceptionAggregator {
+
+    private static final String OTHER_MESSAGES = "(other messages)";
+
+    private final ConcurrentHashMap<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    //number of buckets per method and exception type, keyed by the key of their other messages bucket
+    private final ConcurrentHashMap<Key, AtomicInteger> templates = new ConcurrentHashMap<>();
+
+    @Autowired
+    AdviceLogger adviceLogger;
+
+    @Value("${exceptions.flush-interval:10s}")
+    Duration flushInterval;
+
+    //per method and exception type, further message templates are counted together
+    @Value("${exceptions.max-buckets:1024}")
+    int maxBuckets;
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("exception-flush-");
+        threadFactory.setDaemon(true);
+        flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    //logs what was counted since the last flush
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public void record(Method method, Throwable ex) {
+        Key key = new Key(method, ex.getClass(), template(ex.getMessage()));
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            Key other = new Key(method, ex.getClass(), OTHER_MESSAGES);
+            AtomicInteger count = templates.computeIfAbsent(other, k -> new AtomicInteger());
+            //threads adding templates at the same time can go past the limit by at most one each
+            if (count.get() >= maxBuckets) {
+                key = other;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> {
+                count.incrementAndGet();
+                return new Bucket(k);
+            });
+        }
+        bucket.count.increment();
+        if (bucket.sample == null) {
+            bucket.sample = ex;
+        }
+    }
+
+    synchronized void flush() {
+        for (Bucket bucket : buckets.values()) {
+            long count = bucket.count.sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            adviceLogger.log("{} x {} thrown by {}", count, bucket.label, bucket.key.method);
+            //the next exception becomes the sample of the next interval
+            Throwable sample = bucket.sample;
+            bucket.sample = null;
+            if (sample != null) {
+                String trace = stackTrace(sample);
+                if (!trace.equals(bucket.loggedTrace)) {
+                    bucket.loggedTrace = trace;
+                    adviceLogger.log("Sample: {}", trace);
+                }
+            }
+        }
+    }
+
+    private static String stackTrace(Throwable sample) {
+        if (sample.getStackTrace().length == 0) {
+            return sample + " (no stack trace)";
+        }
+        StringWriter trace = new StringWriter();
+        sample.printStackTrace(new PrintWriter(trace));
+        return trace.toString().trim();
+    }
+
+    //"Customer K2434567 already has an account" becomes "Customer {} already has an account"
+    static String template(String message) {
+        if (message == null) {
+            return "";
+        }
+        StringBuilder template = null;
+        int wordStart = 0;
+        boolean digit = false;
+        for (int i = 0; i <= message.length(); i++) {
+            char c = i < message.length() ? message.charAt(i) : ' ';
+            if (!Character.isWhitespace(c)) {
+                digit |= Character.isDigit(c);
+                continue;
+            }
+            if (digit) {
+                if (template == null) {
+                    template = new StringBuilder(message.length()).append(message, 0, wordStart);
+                }
+                template.append("{}");
+            } else if (template != null) {
+                template.append(message, wordStart, i);
+            }
+            if (template != null && i < message.length()) {
+                template.append(c);
+            }
+            wordStart = i + 1;
+            digit = false;
+        }
+        //a message without numbers is its own template
+        return template != null ? template.toString() : message;
+    }
+
+    private static final class Key {
+
+        final Method method;
+        final Class<?> type;
+        final String template;
+        //computed once, every recorded exception looks its key up
+        final int hash;
+
+        Key(Method method, Class<?> type, String template) {
+            this.method = method;
+            this.type = type;
+            this.template = template;
+            this.hash = 31 * (31 * method.hashCode() + type.hashCode()) + template.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && method.equals(key.method) && type == key.type && template.equals(key.template);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Bucket {
+
+        final Key key;
+        final String label;
+        final LongAdder count = new LongAdder();
+        volatile Throwable sample;
+        //only used while flushing
+        String loggedTrace;
+
+        Bucket(Key key) {
+            this.key = key;
+            this.label = key.type.getName() + ": " + key.template;
+        }
+    }
+}
@@ -6,4 +6,8 @@ public interface AccountService {
 
     public abstract Account getAccountByCustomerId(String customerId) throws Exception;
 
+    public abstract void openAccount(String customerId, Account account) throws Exception;
+
+    public abstract Account closeAccount(String customerId) throws Exception;
+
 }
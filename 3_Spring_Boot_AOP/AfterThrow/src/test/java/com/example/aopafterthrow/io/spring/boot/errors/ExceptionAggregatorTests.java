@@ -0,0 +1,63 @@
+package com.example.aopafterthrow.io.spring.boot.errors;
+
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionAggregatorTests {
+
+    @Test
+    void templatesReplaceWordsWithDigits() {
+        assertThat(ExceptionAggregator.template("Customer K2434567 already has 2 accounts"))
+                .isEqualTo("Customer {} already has {} accounts");
+        assertThat(ExceptionAggregator.template("No such customer")).isEqualTo("No such customer");
+        assertThat(ExceptionAggregator.template(null)).isEmpty();
+    }
+
+    @Test
+    void limitsTemplatesPerMethodAndExceptionType() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExceptionAggregator aggregator = new ExceptionAggregator();
+        aggregator.adviceLogger = new AdviceLogger(64, AdviceLogger.OverflowPolicy.BLOCK, Channels.newChannel(out));
+        aggregator.maxBuckets = 2;
+        Method hashCode = Object.class.getMethod("hashCode");
+        Method toString = Object.class.getMethod("toString");
+
+        aggregator.record(hashCode, new IllegalStateException("first"));
+        aggregator.record(hashCode, new IllegalStateException("second"));
+        aggregator.record(hashCode, new IllegalStateException("third"));
+        aggregator.record(hashCode, new IllegalStateException("fourth"));
+        aggregator.record(hashCode, new IllegalStateException("first"));
+        //another exception type and another method have templates of their own
+        aggregator.record(hashCode, new IllegalArgumentException("first"));
+        aggregator.record(toString, new IllegalStateException("first"));
+        aggregator.flush();
+        aggregator.adviceLogger.close();
+
+        assertThat(summaries(out)).containsExactlyInAnyOrder(
+                "2 x java.lang.IllegalStateException: first thrown by int java.lang.Object.hashCode()",
+                "1 x java.lang.IllegalStateException: second thrown by int java.lang.Object.hashCode()",
+                "2 x java.lang.IllegalStateException: (other messages) thrown by int java.lang.Object.hashCode()",
+                "1 x java.lang.IllegalArgumentException: first thrown by int java.lang.Object.hashCode()",
+                "1 x java.lang.IllegalStateException: first thrown by String java.lang.Object.toString()");
+    }
+
+    //the summary lines without the time and thread prefix, the sample stack traces are left out
+    private static List<String> summaries(ByteArrayOutputStream out) {
+        List<String> summaries = new ArrayList<>();
+        for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            if (line.contains(" thrown by ")) {
+                summaries.add(line.substring(line.indexOf("] ") + 2));
+            }
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.aopbenchmarks.io.spring.boot.aspect;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+
+/**
+ * One aspect per advice type, applied to every service method of the examples. The advice only counts its
+ * calls, so a benchmark measures what the proxy and the advice type cost, not what the advice does.
+ */
+public enum Advice {
+
+    NONE(null),
+    BEFORE(new BeforeAspect()),
+    AFTER(new AfterAspect()),
+    AROUND(new AroundAspect()),
+    AFTER_RETURNING(new AfterReturningAspect()),
+    AFTER_THROWING(new AfterThrowingAspect());
+
+    static final String SERVICES = "execution(* com.example..service..*.*(..))";
+
+    static long calls;
+
+    private final Object aspect;
+
+    Advice(Object aspect) {
+        this.aspect = aspect;
+    }
+
+    //null for NONE, the target is called without a proxy
+    public Object getAspect() {
+        return aspect;
+    }
+
+    @Aspect
+    public static class BeforeAspect {
+        @Before(SERVICES)
+        public void before(JoinPoint joinPoint) {
+            calls++;
+        }
+    }
+
+    @Aspect
+    public static class AfterAspect {
+        @After(SERVICES)
+        public void after(JoinPoint joinPoint) {
+            calls++;
+        }
+    }
+
+    @Aspect
+    public static class AroundAspect {
+        @Around(SERVICES)
+        public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+            calls++;
+            return joinPoint.proceed();
+        }
+    }
+
+    @Aspect
+    public static class AfterReturningAspect {
+        @AfterReturning(pointcut = SERVICES, returning = "result")
+        public void afterReturning(JoinPoint joinPoint, Object result) {
+            calls++;
+        }
+    }
+
+    //the benchmarked calls do not throw, this is the cost of having the advice in place
+    @Aspect
+    public static class AfterThrowingAspect {
+        @AfterThrowing(pointcut = SERVICES, throwing = "ex")
+        public void afterThrowing(JoinPoint joinPoint, Exception ex) {
+            calls++;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.aopbenchmarks.io.spring.boot.aspect;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+
+//three ways for a @Before advice of createEmployee to get at the arguments
+public enum ArgsBinding {
+
+    //the advice does not look at the arguments
+    NONE(new NoArgsAspect()),
+    //the advice reads them from JoinPoint.getArgs(), which copies the argument array
+    GET_ARGS(new GetArgsAspect()),
+    //the pointcut binds them with args(...), as the Before and After examples do
+    ARGS_POINTCUT(new ArgsPointcutAspect());
+
+    static final String CREATE_EMPLOYEE = "execution(* com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService.createEmployee(..))";
+
+    static int length;
+
+    private final Object aspect;
+
+    ArgsBinding(Object aspect) {
+        this.aspect = aspect;
+    }
+
+    public Object getAspect() {
+        return aspect;
+    }
+
+    @Aspect
+    public static class NoArgsAspect {
+        @Before(CREATE_EMPLOYEE)
+        public void before(JoinPoint joinPoint) {
+            length++;
+        }
+    }
+
+    @Aspect
+    public static class GetArgsAspect {
+        @Before(CREATE_EMPLOYEE)
+        public void before(JoinPoint joinPoint) {
+            Object[] args = joinPoint.getArgs();
+            length += ((String) args[0]).length() + ((String) args[1]).length() + ((String) args[2]).length();
+        }
+    }
+
+    @Aspect
+    public static class ArgsPointcutAspect {
+        @Before(CREATE_EMPLOYEE + " && args(empId, firstName, secondName)")
+        public void before(JoinPoint joinPoint, String empId, String firstName, String secondName) {
+            length += empId.length() + firstName.length() + secondName.length();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aopreturningadvice.io.spring.boot.model.Account;
+import com.example.aopreturningadvice.io.spring.boot.store.AccountStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account lookups from four threads: the entrySet() scan of a HashMap that AccountServiceImpl used to do against
+ * AccountStore. The readWrite group looks accounts up from three threads while a fourth opens and closes accounts.
+ * <p>
+ * The store is bulk loaded from a generated file, the time that takes shows in the setup of each fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccountLookupBenchmark {
+
+    @Param({"1000", "1000000"})
+    int accounts;
+
+    private String[] customerIds;
+
+    private Map<String, Account> map;
+
+    private AccountStore accountStore;
+
+    @Setup
+    public void setUp() throws IOException {
+        customerIds = new String[accounts];
+        Path file = Files.createTempFile("accounts", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < accounts; i++) {
+                    customerIds[i] = String.format("C%08d", i);
+                    writer.write(customerIds[i] + "," + (10_000_000_000L + i) + "," + (i % 2 == 0 ? "Saving Account" : "Current Account"));
+                    writer.newLine();
+                }
+            }
+            accountStore = new AccountStore();
+            long started = System.nanoTime();
+            accountStore.load(file);
+            System.out.println("Loaded " + accountStore.size() + " accounts in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+        } finally {
+            Files.delete(file);
+        }
+        map = new HashMap<>();
+        for (String customerId : customerIds) {
+            map.put(customerId, accountStore.get(customerId));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account linearScan() {
+        String customerId = randomCustomerId();
+        Account account = null;
+        for (Map.Entry<String, Account> entry : map.entrySet()) {
+            if (entry.getKey().equals(customerId)) {
+                account = entry.getValue();
+            }
+        }
+        return account;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account accountStore() {
+        return accountStore.get(randomCustomerId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Account lookupWhileWriting() {
+        return accountStore.get(randomCustomerId());
+    }
+
+    //closes an account and opens it again, so the number of accounts stays the same
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean openAndClose() {
+        String customerId = randomCustomerId();
+        Account account = accountStore.close(customerId);
+        return account != null && accountStore.open(customerId, account);
+    }
+
+    private String randomCustomerId() {
+        return customerIds[ThreadLocalRandom.current().nextInt(customerIds.length)];
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aopbenchmarks.io.spring.boot.aspect.Advice;
+import com.example.aopreturningadvice.io.spring.boot.model.Account;
+import com.example.aopreturningadvice.io.spring.boot.service.impl.AccountService;
+import com.example.aopreturningadvice.io.spring.boot.service.impl.AccountServiceImpl;
+import com.example.aopreturningadvice.io.spring.boot.store.AccountStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+//AccountServiceImpl implements AccountService, so it is proxied both ways
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    @Param
+    Advice advice;
+
+    @Param
+    Proxies.ProxyType proxyType;
+
+    private AccountService accountService;
+
+    @Setup
+    public void setUp() {
+        AccountServiceImpl target = new AccountServiceImpl();
+        DefaultListableBeanFactory beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("accountStore", new AccountStore());
+        beanFactory.autowireBean(target);
+        accountService = Proxies.proxy(target, advice.getAspect(), proxyType);
+    }
+
+    @Benchmark
+    public Account getAccountByCustomerId() throws Exception {
+        return accountService.getAccountByCustomerId("K2434567");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aopbenchmarks.io.spring.boot.aspect.Advice;
+import com.example.aoparoundadvice.io.spring.boot.ledger.Ledger;
+import com.example.aoparoundadvice.io.spring.boot.service.BankService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+//BankService prints its result, System.out goes to the blackhole so the benchmark does not measure the console
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankServiceBenchmark {
+
+    @Param
+    Advice advice;
+
+    private BankService bankService;
+
+    private PrintStream console;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        BankService target = new BankService();
+        DefaultListableBeanFactory beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("ledger", new Ledger(256));
+        beanFactory.autowireBean(target);
+        bankService = Proxies.proxy(target, advice.getAspect(), Proxies.ProxyType.CGLIB);
+        console = System.out;
+        System.setOut(new BlackholeConsole(blackhole));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void displayBalance() {
+        bankService.displayBalance("12345");
+    }
+}
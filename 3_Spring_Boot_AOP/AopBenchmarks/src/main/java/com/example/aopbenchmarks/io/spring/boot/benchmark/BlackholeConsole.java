@@ -0,0 +1,47 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+//a System.out that hands what the services print to the blackhole, a discarding stream would still encode and lock
+final class BlackholeConsole extends PrintStream {
+
+    private final Blackhole blackhole;
+
+    BlackholeConsole(Blackhole blackhole) {
+        super(OutputStream.nullOutputStream());
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void print(String s) {
+        blackhole.consume(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        blackhole.consume(obj);
+    }
+
+    @Override
+    public void println(String x) {
+        blackhole.consume(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        blackhole.consume(x);
+    }
+
+    @Override
+    public void write(int b) {
+        blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        blackhole.consume(buf);
+    }
+}
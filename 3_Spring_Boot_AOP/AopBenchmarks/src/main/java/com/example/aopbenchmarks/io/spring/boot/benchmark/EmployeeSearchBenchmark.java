@@ -0,0 +1,136 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import com.example.aopbeforeadviceexample.io.spring.boot.store.EmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name prefix searches for the first page of 20 employees from four threads: a scan of all employees that
+ * compares lower cased names against EmployeeStore's index. The readWrite group searches from three threads while
+ * a fourth renames employees, which removes and adds their keys in the index.
+ * <p>
+ * Names are made of random syllables, so a three letter prefix matches a few thousand of a million employees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmployeeSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "ber", "cha", "da", "el", "fi", "go", "ha", "is", "jo", "ka", "li",
+            "ma", "na", "or", "pe", "qui", "ro", "sa", "ta", "ul", "vi", "wen", "xa", "yo", "zo"};
+
+    private static final int LIMIT = 20;
+
+    @Param({"1000", "1000000"})
+    int employees;
+
+    private Employee[] all;
+
+    private String[] prefixes;
+
+    private EmployeeStore employeeStore;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        all = new Employee[employees];
+        employeeStore = new EmployeeStore();
+        long started = System.nanoTime();
+        for (int i = 0; i < employees; i++) {
+            all[i] = employee(String.format("E%08d", i), name(random), name(random));
+            employeeStore.put(all[i]);
+        }
+        System.out.println("Indexed " + employeeStore.size() + " employees in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+        //prefixes of names that exist, so every search finds something
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            Employee employee = all[random.nextInt(employees)];
+            String name = random.nextBoolean() ? employee.getFirstName() : employee.getSecondName();
+            prefixes[i] = name.substring(0, 3);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Employee> linearScan() {
+        String prefix = randomPrefix().toLowerCase(Locale.ROOT);
+        List<Employee> found = new ArrayList<>(LIMIT);
+        for (Employee employee : all) {
+            if (employee.getFirstName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                    || employee.getSecondName().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                found.add(employee);
+            }
+        }
+        //sorted by id for a stable first page
+        found.sort((a, b) -> a.getEmpId().compareTo(b.getEmpId()));
+        return found.subList(0, Math.min(LIMIT, found.size()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Employee> employeeStore() {
+        return employeeStore.search(randomPrefix(), 0, LIMIT);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public List<Employee> searchWhileWriting() {
+        return employeeStore.search(randomPrefix(), 0, LIMIT);
+    }
+
+    //swaps the names of an employee, so the index keeps the same number of keys
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Employee rename() {
+        Employee employee = employeeStore.get(all[ThreadLocalRandom.current().nextInt(employees)].getEmpId());
+        Employee renamed = employee(employee.getEmpId(), employee.getSecondName(), employee.getFirstName());
+        employeeStore.put(renamed);
+        return renamed;
+    }
+
+    private String randomPrefix() {
+        return prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)];
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 2 + random.nextInt(2); i > 0; i--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static Employee employee(String empId, String firstName, String secondName) {
+        Employee employee = new Employee();
+        employee.setEmpId(empId);
+        employee.setFirstName(firstName);
+        employee.setSecondName(secondName);
+        return employee;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService;
+import com.example.aopbeforeadviceexample.io.spring.boot.store.EmployeeStore;
+import com.example.aopbenchmarks.io.spring.boot.aspect.Advice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+//EmployeeService has no interface, so it can only be proxied with CGLIB
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param
+    Advice advice;
+
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        EmployeeService target = new EmployeeService();
+        DefaultListableBeanFactory beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("employeeStore", new EmployeeStore());
+        beanFactory.autowireBean(target);
+        employeeService = Proxies.proxy(target, advice.getAspect(), Proxies.ProxyType.CGLIB);
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.createEmployee("E1001", "Jane", "Doe");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.advicelogging.io.spring.boot.jfr.JfrEventInterceptor;
+import com.example.advicelogging.io.spring.boot.jfr.ServiceCallEvent;
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService;
+import com.example.aopbeforeadviceexample.io.spring.boot.store.EmployeeStore;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JFR event advice per call: without the advice, with the advice and no recording, and with a recording
+ * that records every call or only calls of at least a millisecond. Run it with -prof gc to see that the advice
+ * allocates nothing while no recording has the event enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JfrEventBenchmark {
+
+    public enum Setting { NO_ADVICE, NOT_RECORDING, RECORDING, RECORDING_ABOVE_THRESHOLD }
+
+    @Param
+    Setting setting;
+
+    private EmployeeService employeeService;
+
+    private Recording recording;
+
+    @Setup
+    public void setUp() {
+        EmployeeService target = new EmployeeService();
+        DefaultListableBeanFactory beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("employeeStore", new EmployeeStore());
+        beanFactory.autowireBean(target);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        if (setting != Setting.NO_ADVICE) {
+            long thresholdNanos = setting == Setting.RECORDING_ABOVE_THRESHOLD ? TimeUnit.MILLISECONDS.toNanos(1) : 0;
+            factory.addAdvice(new JfrEventInterceptor("employee-service", thresholdNanos));
+        }
+        employeeService = (EmployeeService) factory.getProxy();
+        if (setting == Setting.RECORDING || setting == Setting.RECORDING_ABOVE_THRESHOLD) {
+            recording = new Recording();
+            recording.enable(ServiceCallEvent.class).withoutStackTrace().withThreshold(Duration.ZERO);
+            recording.setMaxSize(64L << 20);
+            recording.setToDisk(true);
+            recording.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.createEmployee("E1001", "Jane", "Doe");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.aoparoundadvice.io.spring.boot.ledger.InsufficientFundsException;
+import com.example.aoparoundadvice.io.spring.boot.ledger.Ledger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers between random accounts of the Ledger behind BankService, on 1, 8, 32 and 128 threads. With 16 accounts
+ * most transfers contend for the same stripes, with 100,000 they rarely do. The balance benchmark reads balances
+ * on 8 threads, which never wait for a lock.
+ * <p>
+ * After every iteration, when no transfer is running, the total of all balances is checked against the total the
+ * accounts were opened with. A transfer that lost or created money fails the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerTransferBenchmark {
+
+    private static final long OPENING_BALANCE = 1_000_000_00;
+
+    @Param({"16", "100000"})
+    int accounts;
+
+    @Param({"256"})
+    int stripes;
+
+    private String[] accNums;
+
+    private Ledger ledger;
+
+    private long total;
+
+    @Setup
+    public void setUp() {
+        ledger = new Ledger(stripes);
+        accNums = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accNums[i] = String.format("A%08d", i);
+            ledger.open(accNums[i], OPENING_BALANCE);
+        }
+        total = ledger.totalBalance();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkTotal() {
+        long now = ledger.totalBalance();
+        if (now != total) {
+            throw new IllegalStateException("The total balance changed from " + total + " to " + now);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean transfer1() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean transfer8() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean transfer32() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(128)
+    public boolean transfer128() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long balance() {
+        return ledger.balance(accNums[ThreadLocalRandom.current().nextInt(accounts)]);
+    }
+
+    private boolean transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = random.nextInt(accounts - 1);
+        //any account but the one paying
+        if (to >= from) {
+            to++;
+        }
+        try {
+            ledger.transfer(accNums[from], accNums[to], 1 + random.nextInt(10_000));
+            return true;
+        } catch (InsufficientFundsException ex) {
+            return false;
+        }
+    }
+}
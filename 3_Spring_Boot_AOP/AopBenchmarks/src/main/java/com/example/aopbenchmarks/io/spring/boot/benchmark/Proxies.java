@@ -0,0 +1,39 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+public final class Proxies {
+
+    private Proxies() {
+    }
+
+    //proxies the target with the aspect like @EnableAspectJAutoProxy does, or returns the target for no aspect
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(T target, Object aspect, ProxyType proxyType) {
+        if (aspect == null) {
+            return target;
+        }
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(proxyType == ProxyType.CGLIB);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    //a bare bean factory ignores @Autowired, this one injects the fields of autowireBean like the application context does
+    public static DefaultListableBeanFactory autowiringBeanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        AutowiredAnnotationBeanPostProcessor autowired = new AutowiredAnnotationBeanPostProcessor();
+        autowired.setBeanFactory(beanFactory);
+        beanFactory.addBeanPostProcessor(autowired);
+        return beanFactory;
+    }
+
+    public enum ProxyType {
+        //a subclass of the target, what proxyTargetClass = true gives
+        CGLIB,
+        //a java.lang.reflect.Proxy of the interfaces of the target
+        JDK
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.advicelogging.io.spring.boot.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket checks from 64 threads: the compare-and-set RateLimiter against buckets that lock on each check.
+ * With one client every thread hits the same bucket, with 1,000,000 clients the table of 65,536 buckets keeps
+ * evicting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RateLimiterBenchmark {
+
+    private static final int CAPACITY = 100;
+
+    private static final double REFILL_PER_SECOND = 1_000_000;
+
+    @Param({"1", "1024", "1000000"})
+    int clients;
+
+    private String[] keys;
+
+    private RateLimiter rateLimiter;
+
+    private LockingRateLimiter lockingRateLimiter;
+
+    @Setup
+    public void setUp() {
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "10.0." + (i >>> 8 & 0xff) + "." + (i & 0xff) + "/" + (i >>> 16);
+        }
+        rateLimiter = new RateLimiter(CAPACITY, REFILL_PER_SECOND, 65536);
+        lockingRateLimiter = new LockingRateLimiter();
+    }
+
+    @Benchmark
+    public long casBuckets() {
+        return rateLimiter.tryAcquire(randomKey());
+    }
+
+    @Benchmark
+    public long lockingBuckets() {
+        return lockingRateLimiter.tryAcquire(randomKey());
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    //the usual token bucket that refills and takes a token under the lock of the bucket, one bucket per client forever
+    static final class LockingRateLimiter {
+
+        private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        long tryAcquire(String key) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            synchronized (bucket) {
+                long now = System.nanoTime();
+                bucket.tokens = Math.min(CAPACITY, bucket.tokens + (now - bucket.refilledAt) * REFILL_PER_SECOND / TimeUnit.SECONDS.toNanos(1));
+                bucket.refilledAt = now;
+                if (bucket.tokens < 1) {
+                    return (long) ((1 - bucket.tokens) * TimeUnit.SECONDS.toNanos(1) / REFILL_PER_SECOND);
+                }
+                bucket.tokens--;
+                return 0;
+            }
+        }
+
+        static final class Bucket {
+            double tokens = CAPACITY;
+            long refilledAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.advicelogging.io.spring.boot.tracing.SpanExporter;
+import com.example.advicelogging.io.spring.boot.tracing.TracingInterceptor;
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService;
+import com.example.aopbeforeadviceexample.io.spring.boot.store.EmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//cost of the tracing advice per call for traces that are never, sometimes and always sampled
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingBenchmark {
+
+    @Param({"0", "0.01", "1"})
+    double sampleRate;
+
+    private EmployeeService employeeService;
+
+    private SpanExporter spanExporter;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("traces");
+        //a large queue, the benchmark measures the calls and not how fast spans are written
+        spanExporter = new SpanExporter(directory, "benchmark", 1 << 20, 512, TimeUnit.MILLISECONDS.toNanos(100), 10L << 20, 2);
+        EmployeeService target = new EmployeeService();
+        DefaultListableBeanFactory beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("employeeStore", new EmployeeStore());
+        beanFactory.autowireBean(target);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TracingInterceptor(sampleRate, TimeUnit.MILLISECONDS.toNanos(100), spanExporter));
+        employeeService = (EmployeeService) factory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        spanExporter.close();
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.createEmployee("E1001", "Jane", "Doe");
+    }
+}
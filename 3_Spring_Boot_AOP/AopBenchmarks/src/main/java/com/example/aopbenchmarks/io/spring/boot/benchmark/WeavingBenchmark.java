@@ -0,0 +1,137 @@
+package com.example.aopbenchmarks.io.spring.boot.benchmark;
+
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import com.example.aopbeforeadviceexample.io.spring.boot.aspect.EmployeeServiceAspect;
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService;
+import com.example.aopbeforeadviceexample.io.spring.boot.store.EmployeeStore;
+import com.example.aoparoundadvice.io.spring.boot.aspect.BankAspect;
+import com.example.aoparoundadvice.io.spring.boot.ledger.Ledger;
+import com.example.aoparoundadvice.io.spring.boot.metrics.LatencyRecorder;
+import com.example.aoparoundadvice.io.spring.boot.service.BankService;
+import com.example.aopreturningadvice.io.spring.boot.aspect.AccountAspect;
+import com.example.aopreturningadvice.io.spring.boot.model.Account;
+import com.example.aopreturningadvice.io.spring.boot.service.impl.AccountService;
+import com.example.aopreturningadvice.io.spring.boot.service.impl.AccountServiceImpl;
+import com.example.aopreturningadvice.io.spring.boot.store.AccountStore;
+import org.aspectj.lang.Aspects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call latency of the services with the aspects of the examples applied by a CGLIB proxy and woven by AspectJ.
+ * <p>
+ * The *Woven benchmarks fork with benchmarks.jar as the AspectJ agent, which weaves the aspects listed in
+ * META-INF/aop.xml into the services as they load. The path of the agent is relative, so run the benchmarks
+ * from the AopBenchmarks directory. Both modes run the same aspect code and log to a discarded channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeavingBenchmark {
+
+    private static final String AGENT = "-javaagent:target/benchmarks.jar";
+
+    private EmployeeService employeeService;
+
+    private AccountService accountService;
+
+    private BankService bankService;
+
+    private AdviceLogger adviceLogger;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    private PrintStream console;
+
+    private boolean woven;
+
+    @Setup
+    public void setUp(BenchmarkParams params, Blackhole blackhole) {
+        woven = params.getBenchmark().endsWith("Woven");
+        if (woven != Aspects.hasAspect(BankAspect.class)) {
+            throw new IllegalStateException("The woven benchmarks need the AspectJ agent, run them from the AopBenchmarks directory");
+        }
+        adviceLogger = new AdviceLogger(4096, AdviceLogger.OverflowPolicy.DROP, Channels.newChannel(OutputStream.nullOutputStream()));
+        beanFactory = Proxies.autowiringBeanFactory();
+        beanFactory.registerSingleton("adviceLogger", adviceLogger);
+        beanFactory.registerSingleton("latencyRecorder", new LatencyRecorder());
+        beanFactory.registerSingleton("accountStore", new AccountStore());
+        beanFactory.registerSingleton("employeeStore", new EmployeeStore());
+        beanFactory.registerSingleton("ledger", new Ledger(256));
+
+        employeeService = advised(new EmployeeService(), EmployeeServiceAspect.class);
+        accountService = advised(new AccountServiceImpl(), AccountAspect.class);
+        bankService = advised(new BankService(), BankAspect.class);
+        console = System.out;
+        System.setOut(new BlackholeConsole(blackhole));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+        adviceLogger.close();
+    }
+
+    //target and aspect are autowired like the Spring beans of the examples, a woven target is called directly
+    private <T> T advised(T target, Class<?> aspectClass) {
+        beanFactory.autowireBean(target);
+        Object aspect = woven ? Aspects.aspectOf(aspectClass) : BeanUtils.instantiateClass(aspectClass);
+        beanFactory.autowireBean(aspect);
+        return woven ? target : Proxies.proxy(target, aspect, Proxies.ProxyType.CGLIB);
+    }
+
+    @Benchmark
+    public Employee createEmployeeProxied() {
+        return employeeService.createEmployee("E1001", "Jane", "Doe");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = AGENT)
+    public Employee createEmployeeWoven() {
+        return employeeService.createEmployee("E1001", "Jane", "Doe");
+    }
+
+    @Benchmark
+    public Account getAccountByCustomerIdProxied() throws Exception {
+        return accountService.getAccountByCustomerId("K2434567");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = AGENT)
+    public Account getAccountByCustomerIdWoven() throws Exception {
+        return accountService.getAccountByCustomerId("K2434567");
+    }
+
+    @Benchmark
+    public void displayBalanceProxied() {
+        bankService.displayBalance("12345");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = AGENT)
+    public void displayBalanceWoven() {
+        bankService.displayBalance("12345");
+    }
+}
@@ -16,7 +16,7 @@ public class AopAroundAdviceApplication {
         BankService bank = context.getBean(BankService.class);
         String accNumber = "12345";
         bank.displayBalance(accNumber);
-        context.close();
+        // The application keeps running, the latencies of further calls are served by GET /latency
     }
 
 }
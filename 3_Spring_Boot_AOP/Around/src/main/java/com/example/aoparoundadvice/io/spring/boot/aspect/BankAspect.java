@@ -1,26 +1,43 @@
 package com.example.aoparoundadvice.io.spring.boot.aspect;
 
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import com.example.aoparoundadvice.io.spring.boot.metrics.LatencyRecorder;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
 public class BankAspect {
 
+    @Autowired
+    LatencyRecorder latencyRecorder;
+
+    @Autowired
+    AdviceLogger adviceLogger;
+
     //Displays all the available methods i.e. the advice will be called for all the methods
     @Pointcut(value = "execution(* com.example.aoparoundadvice.io.spring.boot.service.BankService.*(..))")
     private void logDisplayingBalance() {
     }
 
     //Declares the around advice that is applied before and after the method matching with a pointcut expression
+    //Only jp.proceed() is timed, the latency is recorded in the histogram of the method even when it throws
     @Around(value = "logDisplayingBalance()")
     public Object aroundAdvice(ProceedingJoinPoint jp) throws Throwable {
-        System.out.println("The method aroundAdvice() before invocation of the method " + jp.getSignature().getName() + " method");
-        Object proceed = jp.proceed();
-        System.out.println("The method aroundAdvice() after invocation of the method " + jp.getSignature().getName() + " method");
+        adviceLogger.log("The method aroundAdvice() before invocation of the method {} method", jp.getSignature().getName());
+        long start = System.nanoTime();
+        Object proceed;
+        try {
+            proceed = jp.proceed();
+        } finally {
+            latencyRecorder.record(((MethodSignature) jp.getSignature()).getMethod(), System.nanoTime() - start);
+        }
+        adviceLogger.log("The method aroundAdvice() after invocation of the method {} method", jp.getSignature().getName());
         return proceed;
     }
 
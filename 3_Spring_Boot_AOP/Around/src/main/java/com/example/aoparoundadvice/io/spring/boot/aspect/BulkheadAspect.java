@@ -0,0 +1,70 @@
+package com.example.aoparoundadvice.io.spring.boot.aspect;
+
+import com.example.aoparoundadvice.io.spring.boot.bulkhead.AdaptiveLimiter;
+import com.example.aoparoundadvice.io.spring.boot.bulkhead.Bulkhead;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+//runs outside of the other advice, a rejected call is neither logged nor timed
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+
+    //one limiter per annotated method
+    private final ConcurrentHashMap<Method, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    //Declares the around advice for every method annotated with @Bulkhead
+    @Around(value = "@annotation(bulkhead)")
+    public Object limitConcurrency(ProceedingJoinPoint jp, Bulkhead bulkhead) throws Throwable {
+        Method method = ((MethodSignature) jp.getSignature()).getMethod();
+        AdaptiveLimiter limiter = limiters.get(method);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(method, m -> register(new AdaptiveLimiter(m.getDeclaringClass().getSimpleName() + "." + m.getName(), bulkhead)));
+        }
+        limiter.acquire();
+        long start = System.nanoTime();
+        try {
+            return jp.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    //the state of the limiter as gauges and its accepted and rejected calls as counters, tagged with the bulkhead name
+    private AdaptiveLimiter register(AdaptiveLimiter limiter) {
+        String name = limiter.getName();
+        Gauge.builder("bulkhead.limit", limiter, AdaptiveLimiter::getLimit).tag("name", name)
+                .description("Calls the bulkhead currently lets run at a time").register(meterRegistry);
+        Gauge.builder("bulkhead.in.flight", limiter, AdaptiveLimiter::getInFlight).tag("name", name)
+                .description("Calls running").register(meterRegistry);
+        Gauge.builder("bulkhead.queued", limiter, AdaptiveLimiter::getQueued).tag("name", name)
+                .description("Calls waiting for a slot").register(meterRegistry);
+        FunctionCounter.builder("bulkhead.calls", limiter, AdaptiveLimiter::getAccepted).tag("name", name).tag("result", "accepted")
+                .description("Calls let through the bulkhead").register(meterRegistry);
+        FunctionCounter.builder("bulkhead.calls", limiter, AdaptiveLimiter::getRejected).tag("name", name).tag("result", "rejected")
+                .description("Calls rejected because the queue was full or the wait was over").register(meterRegistry);
+        return limiter;
+    }
+
+    public List<AdaptiveLimiter> getLimiters() {
+        return new ArrayList<>(limiters.values());
+    }
+}
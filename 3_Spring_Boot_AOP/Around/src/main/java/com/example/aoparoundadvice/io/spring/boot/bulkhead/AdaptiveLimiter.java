@@ -0,0 +1,156 @@
+package com.example.aoparoundadvice.io.spring.boot.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts with AIMD (additive increase, multiplicative decrease).
+ * <p>
+ * A call that finishes within the slow call time while at least half the limit is in use raises the limit by one.
+ * A call that takes longer multiplies it by {@value #BACKOFF_RATIO}, once per window: the slow calls that were
+ * already running when the limit last went down ran under the old limit and do not lower it again. Calls over the
+ * limit wait briefly in arrival order and are rejected when the queue is full or their wait is over.
+ */
+public class AdaptiveLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long slowCallNanos;
+
+    private final int maxQueue;
+
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    //guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    //System.nanoTime() of the last decrease, only calls started after it can decrease again
+    private long decreasedAt = System.nanoTime();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveLimiter(String name, Bulkhead bulkhead) {
+        this.name = name;
+        this.minLimit = bulkhead.minLimit();
+        this.maxLimit = bulkhead.maxLimit();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(bulkhead.slowCallMillis());
+        this.maxQueue = bulkhead.maxQueue();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(bulkhead.maxWaitMillis());
+        this.limit = Math.max(minLimit, Math.min(maxLimit, bulkhead.initialLimit()));
+    }
+
+    //takes a slot or throws BulkheadRejectedException, a successful acquire has to be followed by release
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            //callers already waiting go first
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                accepted.increment();
+                return;
+            }
+            if (queued >= maxQueue) {
+                throw reject("queue is full");
+            }
+            queued++;
+            try {
+                long nanos = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (nanos <= 0) {
+                        throw reject("no slot within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+                    nanos = available.awaitNanos(nanos);
+                }
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            accepted.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int previousLimit = (int) limit;
+            long now = System.nanoTime();
+            if (latencyNanos > slowCallNanos) {
+                if (now - latencyNanos - decreasedAt > 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    decreasedAt = now;
+                }
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            inFlight--;
+            if ((int) limit > previousLimit) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BulkheadRejectedException reject(String reason) {
+        rejected.increment();
+        return new BulkheadRejectedException(name + " is overloaded, " + reason + " (limit " + (int) limit + ", in flight " + inFlight + ")");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
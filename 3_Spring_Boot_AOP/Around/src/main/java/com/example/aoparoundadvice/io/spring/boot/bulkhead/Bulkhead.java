@@ -0,0 +1,32 @@
+package com.example.aoparoundadvice.io.spring.boot.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the concurrent calls of the annotated method. The limit adapts to the latency of the calls: it grows while
+ * calls finish within {@link #slowCallMillis()} and the limit is in use, and shrinks when calls get slower. A call
+ * over the limit waits up to {@link #maxWaitMillis()} in a queue of at most {@link #maxQueue()} callers, then it is
+ * rejected with a {@link BulkheadRejectedException}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    int initialLimit() default 20;
+
+    int minLimit() default 1;
+
+    int maxLimit() default 200;
+
+    //a call that takes longer counts as a sign of overload and shrinks the limit
+    long slowCallMillis() default 100;
+
+    int maxQueue() default 50;
+
+    long maxWaitMillis() default 20;
+}
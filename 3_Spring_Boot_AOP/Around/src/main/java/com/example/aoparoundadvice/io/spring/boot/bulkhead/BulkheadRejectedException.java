@@ -0,0 +1,13 @@
+package com.example.aoparoundadvice.io.spring.boot.bulkhead;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//a request that is shed gets a 503, the client can retry it later or elsewhere
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadRejectedException extends RuntimeException {
+
+    public BulkheadRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aoparoundadvice.io.spring.boot.controller;
+
+import com.example.aoparoundadvice.io.spring.boot.service.BankService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+//amounts and balances are in minor units, e.g. cents
+@RestController
+public class BankController {
+
+    @Autowired
+    BankService bankService;
+
+    @GetMapping("/balance/{accNum}")
+    public void displayBalance(@PathVariable String accNum) {
+        bankService.displayBalance(accNum);
+    }
+
+    @PostMapping("/accounts/{accNum}")
+    public long openAccount(@PathVariable String accNum, @RequestParam(value = "balance", defaultValue = "0") long balance) {
+        if (balance < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "balance cannot be negative");
+        }
+        if (!bankService.openAccount(accNum, balance)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Account " + accNum + " already exists");
+        }
+        return balance;
+    }
+
+    @GetMapping("/accounts/{accNum}/balance")
+    public long balance(@PathVariable String accNum) {
+        return bankService.getBalance(accNum);
+    }
+
+    @PostMapping("/accounts/{accNum}/deposit")
+    public long deposit(@PathVariable String accNum, @RequestParam("amount") long amount) {
+        checkAmount(amount);
+        return bankService.deposit(accNum, amount);
+    }
+
+    @PostMapping("/accounts/{accNum}/withdraw")
+    public long withdraw(@PathVariable String accNum, @RequestParam("amount") long amount) {
+        checkAmount(amount);
+        return bankService.withdraw(accNum, amount);
+    }
+
+    @PostMapping("/transfer")
+    public void transfer(@RequestParam("from") String from, @RequestParam("to") String to, @RequestParam("amount") long amount) {
+        checkAmount(amount);
+        if (from.equals(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to have to be different accounts");
+        }
+        bankService.transfer(from, to, amount);
+    }
+
+    private static void checkAmount(long amount) {
+        if (amount <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount has to be positive");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.aoparoundadvice.io.spring.boot.controller;
+
+import com.example.aoparoundadvice.io.spring.boot.aspect.BulkheadAspect;
+import com.example.aoparoundadvice.io.spring.boot.bulkhead.AdaptiveLimiter;
+import com.example.aoparoundadvice.io.spring.boot.model.BulkheadReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class BulkheadController {
+
+    @Autowired
+    BulkheadAspect bulkheadAspect;
+
+    // current concurrency limit, calls in flight and queued, and the accepted and rejected calls of every bulkhead
+    @GetMapping("/bulkhead")
+    public List<BulkheadReport> bulkheads() {
+        List<BulkheadReport> reports = new ArrayList<>();
+        for (AdaptiveLimiter limiter : bulkheadAspect.getLimiters()) {
+            BulkheadReport report = new BulkheadReport(limiter.getName());
+            report.setLimit(limiter.getLimit());
+            report.setInFlight(limiter.getInFlight());
+            report.setQueued(limiter.getQueued());
+            report.setAccepted(limiter.getAccepted());
+            report.setRejected(limiter.getRejected());
+            reports.add(report);
+        }
+        return reports;
+    }
+}
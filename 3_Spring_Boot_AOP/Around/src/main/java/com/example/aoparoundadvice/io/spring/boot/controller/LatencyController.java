@@ -0,0 +1,22 @@
+package com.example.aoparoundadvice.io.spring.boot.controller;
+
+import com.example.aoparoundadvice.io.spring.boot.metrics.LatencyRecorder;
+import com.example.aoparoundadvice.io.spring.boot.model.LatencyReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class LatencyController {
+
+    @Autowired
+    LatencyRecorder latencyRecorder;
+
+    // latency percentiles and throughput of every BankService method measured by the around advice
+    @GetMapping("/latency")
+    public List<LatencyReport> latency() {
+        return latencyRecorder.report();
+    }
+}
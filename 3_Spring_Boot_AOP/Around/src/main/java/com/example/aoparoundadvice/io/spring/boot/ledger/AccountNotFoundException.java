@@ -0,0 +1,12 @@
+package com.example.aoparoundadvice.io.spring.boot.ledger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String accNum) {
+        super("No account " + accNum, null, false, false);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.aoparoundadvice.io.spring.boot.ledger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//an expected outcome of a withdrawal or transfer, so it is thrown without a stack trace
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String accNum, long balance, long amount) {
+        super("Account " + accNum + " has " + balance + " and cannot pay " + amount, null, false, false);
+    }
+}
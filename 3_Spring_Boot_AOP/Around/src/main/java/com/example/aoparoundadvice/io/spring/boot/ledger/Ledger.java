@@ -0,0 +1,164 @@
+package com.example.aoparoundadvice.io.spring.boot.ledger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory account balances in minor units, e.g. cents.
+ * <p>
+ * Every account belongs to one of a fixed number of lock stripes. Deposits and withdrawals lock the stripe of their
+ * account. A transfer locks the stripes of both accounts, always the lower stripe first, so two transfers in
+ * opposite directions cannot deadlock. Accounts on different stripes are changed in parallel.
+ * <p>
+ * Balances are volatile and written only under their stripe's lock, so reading a balance never locks or waits.
+ * {@link #totalBalance()} adds them up without locking. It is exact only while no transfer is running.
+ */
+@Component
+public class Ledger {
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] stripes;
+
+    private final int mask;
+
+    public Ledger(@Value("${ledger.stripes:256}") int stripes) {
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = count - 1;
+        //adding account detail in the ledger, 10,000.00
+        open("12345", 1_000_000);
+    }
+
+    //false when the account already exists
+    public boolean open(String accNum, long balance) {
+        if (balance < 0) {
+            throw new IllegalArgumentException("An account cannot be opened with a negative balance");
+        }
+        //spreads the hash like ConcurrentHashMap, so similar account numbers land on different stripes
+        int hash = accNum.hashCode();
+        return accounts.putIfAbsent(accNum, new Account(accNum, (hash ^ (hash >>> 16)) & mask, balance)) == null;
+    }
+
+    public long balance(String accNum) {
+        return account(accNum).balance;
+    }
+
+    public boolean exists(String accNum) {
+        return accounts.containsKey(accNum);
+    }
+
+    //returns the new balance
+    public long deposit(String accNum, long amount) {
+        checkAmount(amount);
+        Account account = account(accNum);
+        ReentrantLock lock = stripes[account.stripe];
+        lock.lock();
+        try {
+            long balance = Math.addExact(account.balance, amount);
+            account.balance = balance;
+            return balance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //returns the new balance
+    public long withdraw(String accNum, long amount) {
+        checkAmount(amount);
+        Account account = account(accNum);
+        ReentrantLock lock = stripes[account.stripe];
+        lock.lock();
+        try {
+            return debit(account, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void transfer(String fromAccNum, String toAccNum, long amount) {
+        checkAmount(amount);
+        Account from = account(fromAccNum);
+        Account to = account(toAccNum);
+        if (from == to) {
+            throw new IllegalArgumentException("Cannot transfer from account " + fromAccNum + " to itself");
+        }
+        ReentrantLock first = stripes[Math.min(from.stripe, to.stripe)];
+        ReentrantLock second = stripes[Math.max(from.stripe, to.stripe)];
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                //checked before either balance changes, a failed transfer leaves both as they were
+                long credited = Math.addExact(to.balance, amount);
+                debit(from, amount);
+                to.balance = credited;
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    public long totalBalance() {
+        long total = 0;
+        for (Account account : accounts.values()) {
+            total += account.balance;
+        }
+        return total;
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    private Account account(String accNum) {
+        Account account = accounts.get(accNum);
+        if (account == null) {
+            throw new AccountNotFoundException(accNum);
+        }
+        return account;
+    }
+
+    //the caller holds the lock of the account's stripe, returns the new balance
+    private static long debit(Account account, long amount) {
+        long balance = account.balance;
+        if (balance < amount) {
+            throw new InsufficientFundsException(account.accNum, balance, amount);
+        }
+        account.balance = balance - amount;
+        return balance - amount;
+    }
+
+    private static void checkAmount(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("The amount has to be positive, was " + amount);
+        }
+    }
+
+    private static final class Account {
+
+        final String accNum;
+
+        final int stripe;
+
+        volatile long balance;
+
+        Account(String accNum, int stripe, long balance) {
+            this.accNum = accNum;
+            this.stripe = stripe;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.aoparoundadvice.io.spring.boot.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, laid out like HdrHistogram.
+ * <p>
+ * Values below 64 ns get a bucket each, above that every power of two is split into 32 buckets, so a value
+ * is recorded within about 3% of itself. Recording threads are spread over striped arrays by thread id and
+ * only do a few atomic increments, nothing is allocated or locked. A snapshot adds the stripes up.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    //about 137 seconds, longer latencies are recorded as this value
+    private static final long MAX_VALUE = (1L << 37) - 1;
+
+    private static final int BUCKETS = bucket(MAX_VALUE) + 1;
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final String name;
+
+    private final AtomicLongArray[] stripes;
+
+    private final int mask;
+
+    private final long startNanos = System.nanoTime();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripeCount = processors <= 1 ? 1 : Math.min(64, Integer.highestOneBit(processors - 1) << 1);
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS + 3);
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & mask];
+        stripe.getAndIncrement(bucket(value));
+        stripe.getAndIncrement(COUNT);
+        stripe.getAndAdd(SUM, value);
+        if (value > stripe.get(MAX)) {
+            stripe.accumulateAndGet(MAX, value, Math::max);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            count += stripe.get(COUNT);
+            sum += stripe.get(SUM);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return new Snapshot(counts, count, sum, max, System.nanoTime() - startNanos);
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return shift * SUB_COUNT + (int) (value >>> shift);
+    }
+
+    //the values of a bucket are lowestValue(bucket) up to lowestValue(bucket + 1) - 1
+    static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        return (long) (bucket - shift * SUB_COUNT) << shift;
+    }
+
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long elapsedNanos;
+
+        Snapshot(long[] counts, long count, long sum, long max, long elapsedNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        //recorded values per second since the histogram was created
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        //the middle of the bucket that holds the value at the given percentile, e.g. 99.9
+        public long valueAtPercentile(double percentile) {
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long lowest = lowestValue(i);
+                    long highest = lowestValue(i + 1) - 1;
+                    return Math.min(lowest + (highest - lowest) / 2, max);
+                }
+            }
+            return max;
+        }
+    }
+}
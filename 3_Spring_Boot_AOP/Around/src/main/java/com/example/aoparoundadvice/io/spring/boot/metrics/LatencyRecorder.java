@@ -0,0 +1,49 @@
+package com.example.aoparoundadvice.io.spring.boot.metrics;
+
+import com.example.aoparoundadvice.io.spring.boot.model.LatencyReport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//one latency histogram per advised method
+@Component
+public class LatencyRecorder {
+
+    private final ConcurrentHashMap<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(Method method, long nanos) {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(method, LatencyRecorder::newHistogram);
+        }
+        histogram.record(nanos);
+    }
+
+    public List<LatencyReport> report() {
+        List<LatencyReport> reports = new ArrayList<>();
+        for (LatencyHistogram histogram : histograms.values()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            LatencyReport report = new LatencyReport(histogram.getName());
+            report.setCount(snapshot.getCount());
+            report.setThroughputPerSecond(snapshot.getThroughput());
+            report.setMeanNanos(snapshot.getMean());
+            report.setP50Nanos(snapshot.valueAtPercentile(50));
+            report.setP90Nanos(snapshot.valueAtPercentile(90));
+            report.setP99Nanos(snapshot.valueAtPercentile(99));
+            report.setP999Nanos(snapshot.valueAtPercentile(99.9));
+            report.setMaxNanos(snapshot.getMax());
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private static LatencyHistogram newHistogram(Method method) {
+        String parameters = Stream.of(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", "));
+        return new LatencyHistogram(method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(" + parameters + ")");
+    }
+}
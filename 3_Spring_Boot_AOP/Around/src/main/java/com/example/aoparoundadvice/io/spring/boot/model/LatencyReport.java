@@ -0,0 +1,93 @@
+package com.example.aoparoundadvice.io.spring.boot.model;
+
+public class LatencyReport {
+
+    private String signature;
+    private long count;
+    private double throughputPerSecond;
+    private double meanNanos;
+    private long p50Nanos;
+    private long p90Nanos;
+    private long p99Nanos;
+    private long p999Nanos;
+    private long maxNanos;
+
+    public LatencyReport() {
+    }
+
+    public LatencyReport(String signature) {
+        this.signature = signature;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    public void setThroughputPerSecond(double throughputPerSecond) {
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public void setMeanNanos(double meanNanos) {
+        this.meanNanos = meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public void setP50Nanos(long p50Nanos) {
+        this.p50Nanos = p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public void setP90Nanos(long p90Nanos) {
+        this.p90Nanos = p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public void setP99Nanos(long p99Nanos) {
+        this.p99Nanos = p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public void setP999Nanos(long p999Nanos) {
+        this.p999Nanos = p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public void setMaxNanos(long maxNanos) {
+        this.maxNanos = maxNanos;
+    }
+}
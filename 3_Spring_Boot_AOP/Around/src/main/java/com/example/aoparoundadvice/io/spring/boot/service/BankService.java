@@ -1,17 +1,49 @@
 package com.example.aoparoundadvice.io.spring.boot.service;
 
+import com.example.aoparoundadvice.io.spring.boot.bulkhead.Bulkhead;
+import com.example.aoparoundadvice.io.spring.boot.ledger.Ledger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+//amounts are in minor units, 1,000,000 is a balance of 10,000.00
 @Service
 public class BankService {
+
+    @Autowired
+    Ledger ledger;
+
+    //sheds load instead of letting requests pile up when the balance lookup slows down
+    @Bulkhead(initialLimit = 20, maxLimit = 100, slowCallMillis = 100, maxQueue = 50, maxWaitMillis = 20)
     public void displayBalance(String accNum) {
 
         System.out.println("Inside displayBalance() method");
-        if (accNum.equals("12345")) {
-            System.out.println("Total balance: 10,000");
+        if (ledger.exists(accNum)) {
+            long balance = ledger.balance(accNum);
+            System.out.println(String.format("Total balance: %,d.%02d", balance / 100, balance % 100));
         } else {
             System.out.println("Sorry! wrong account number.");
         }
 
     }
+
+    //false when the account already exists
+    public boolean openAccount(String accNum, long balance) {
+        return ledger.open(accNum, balance);
+    }
+
+    public long getBalance(String accNum) {
+        return ledger.balance(accNum);
+    }
+
+    public long deposit(String accNum, long amount) {
+        return ledger.deposit(accNum, amount);
+    }
+
+    public long withdraw(String accNum, long amount) {
+        return ledger.withdraw(accNum, amount);
+    }
+
+    public void transfer(String fromAccNum, String toAccNum, long amount) {
+        ledger.transfer(fromAccNum, toAccNum, amount);
+    }
 }
@@ -0,0 +1,87 @@
+package com.example.aoparoundadvice.benchmark;
+
+import com.example.aoparoundadvice.io.spring.boot.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures what the around advice adds to every call for timing it: two System.nanoTime() calls and one
+ * LatencyHistogram.record(), on one thread and on all processors at once. It also checks the percentiles
+ * of the histogram against the exact percentiles of a known sample.
+ * Run the main method from the test sources.
+ */
+public class LatencyHistogramBenchmark {
+
+    private static final int WARMUP = 5_000_000;
+    private static final int CALLS = 20_000_000;
+
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("benchmark");
+        timeNanoTime(WARMUP);
+        timeRecord(histogram, WARMUP);
+
+        System.out.printf("nanoTime() pair          %6.1f ns/call%n", timeNanoTime(CALLS));
+        System.out.printf("nanoTime() + record()    %6.1f ns/call%n", timeRecord(histogram, CALLS));
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("same on %2d threads       %6.1f ns/call%n", threads, timeRecordConcurrently(histogram, threads));
+        checkAccuracy();
+    }
+
+    private static double timeNanoTime(int calls) {
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < calls; i++) {
+            long begin = System.nanoTime();
+            total += System.nanoTime() - begin;
+        }
+        sink = total;
+        return (double) (System.nanoTime() - start) / calls;
+    }
+
+    private static double timeRecord(LatencyHistogram histogram, int calls) {
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            long begin = System.nanoTime();
+            histogram.record(System.nanoTime() - begin);
+        }
+        return (double) (System.nanoTime() - start) / calls;
+    }
+
+    private static double timeRecordConcurrently(LatencyHistogram histogram, int threads) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        long[] nanos = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers.add(new Thread(() -> nanos[index] = (long) (timeRecord(histogram, CALLS / threads) * (CALLS / threads))));
+        }
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (double) (System.nanoTime() - start) / (CALLS / threads);
+    }
+
+    //log-normal latencies around 50 microseconds, the histogram should be within about 3% of the exact values
+    private static void checkAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram("accuracy");
+        Random random = new Random(7);
+        long[] values = new long[1_000_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(Math.log(50_000) + random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        System.out.printf("%n%-10s %12s %12s%n", "percentile", "exact (ns)", "histogram");
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            System.out.printf("%-10s %12d %12d%n", "p" + percentile, exact, snapshot.valueAtPercentile(percentile));
+        }
+    }
+}
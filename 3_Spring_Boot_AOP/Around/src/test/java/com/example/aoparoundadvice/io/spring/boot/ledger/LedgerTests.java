@@ -0,0 +1,127 @@
+package com.example.aoparoundadvice.io.spring.boot.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LedgerTests {
+
+    //opens the default account 12345 with 1,000,000
+    private final Ledger ledger = new Ledger(4);
+
+    @Test
+    void depositsWithdrawsAndTransfers() {
+        ledger.open("a", 100);
+        ledger.open("b", 0);
+
+        assertThat(ledger.deposit("a", 50)).isEqualTo(150);
+        assertThat(ledger.withdraw("a", 30)).isEqualTo(120);
+        ledger.transfer("a", "b", 20);
+
+        assertThat(ledger.balance("a")).isEqualTo(100);
+        assertThat(ledger.balance("b")).isEqualTo(20);
+    }
+
+    @Test
+    void keepsExistingAccountWhenOpenedAgain() {
+        assertThat(ledger.open("a", 100)).isTrue();
+
+        assertThat(ledger.open("a", 5)).isFalse();
+
+        assertThat(ledger.balance("a")).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsTransferOverBalanceAndLeavesBothBalances() {
+        ledger.open("a", 100);
+        ledger.open("b", 10);
+
+        assertThatThrownBy(() -> ledger.transfer("a", "b", 101))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessage("Account a has 100 and cannot pay 101");
+
+        assertThat(ledger.balance("a")).isEqualTo(100);
+        assertThat(ledger.balance("b")).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsTransferThatOverflowsTargetAndLeavesBothBalances() {
+        ledger.open("a", 100);
+        ledger.open("b", Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> ledger.transfer("a", "b", 1)).isInstanceOf(ArithmeticException.class);
+
+        assertThat(ledger.balance("a")).isEqualTo(100);
+        assertThat(ledger.balance("b")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void rejectsTransferToUnknownAccountOrItself() {
+        ledger.open("a", 100);
+
+        assertThatThrownBy(() -> ledger.transfer("a", "missing", 1)).isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> ledger.transfer("a", "a", 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.transfer("a", "12345", 0)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(ledger.balance("a")).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsNegativeOpeningBalance() {
+        assertThatThrownBy(() -> ledger.open("a", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(ledger.exists("a")).isFalse();
+    }
+
+    @Test
+    void keepsTotalBalanceUnderConcurrentTransfers() throws Exception {
+        int accounts = 16;
+        for (int i = 0; i < accounts; i++) {
+            ledger.open("acc-" + i, 1_000);
+        }
+        long total = ledger.totalBalance();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        int from = random.nextInt(accounts);
+                        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+                        try {
+                            //transfers in both directions between the same accounts must not deadlock
+                            ledger.transfer("acc-" + from, "acc-" + to, 1 + random.nextInt(300));
+                        } catch (InsufficientFundsException ex) {
+                            //expected once an account runs low
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ledger.totalBalance()).isEqualTo(total);
+        for (int i = 0; i < accounts; i++) {
+            assertThat(ledger.balance("acc-" + i)).isNotNegative();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.aoparoundadvice.io.spring.boot.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTests {
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram("empty").snapshot();
+
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getMean()).isZero();
+        assertThat(snapshot.valueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    void recordsSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram("small");
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.valueAtPercentile(50)).isEqualTo(25);
+        assertThat(snapshot.valueAtPercentile(100)).isEqualTo(50);
+        assertThat(snapshot.getMax()).isEqualTo(50);
+        assertThat(snapshot.getMean()).isEqualTo(25.5);
+    }
+
+    @Test
+    void reportsPercentilesWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram("large");
+        for (long micros = 1; micros <= 1_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat((double) snapshot.valueAtPercentile(50)).isCloseTo(500_000, within(15_000.0));
+        assertThat((double) snapshot.valueAtPercentile(99)).isCloseTo(990_000, within(29_700.0));
+        assertThat(snapshot.valueAtPercentile(100)).isLessThanOrEqualTo(1_000_000);
+    }
+
+    @Test
+    void bucketsCoverTheirValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() >>> (27 + random.nextInt(37));
+            int bucket = LatencyHistogram.bucket(value);
+
+            assertThat(LatencyHistogram.lowestValue(bucket)).isLessThanOrEqualTo(value);
+            assertThat(LatencyHistogram.lowestValue(bucket + 1)).isGreaterThan(value);
+        }
+    }
+
+    @Test
+    void clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram("clamped");
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(2);
+        assertThat(snapshot.valueAtPercentile(50)).isZero();
+        assertThat(snapshot.getMax()).isEqualTo((1L << 37) - 1);
+    }
+
+    @Test
+    void countsEveryValueRecordedConcurrently() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("concurrent");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= 100_000; i++) {
+                        histogram.record(i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(400_000);
+        assertThat(snapshot.getMean()).isEqualTo(50_000.5);
+        assertThat(snapshot.getMax()).isEqualTo(100_000);
+    }
+}
@@ -1,17 +1,32 @@
 package com.example.aopbeforeadviceexample.io.spring.boot.aspect;
 
+import com.example.advicelogging.io.spring.boot.logging.AdviceLogger;
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Aspect
 @Component
 public class EmployeeServiceAspect {
 
+    @Autowired
+    AdviceLogger adviceLogger;
+
     @Before(value = "execution(* com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService.* (..)) && args(empId, firstName, secondName)")
     public void beforeAdvice(JoinPoint joinPoint, String empId, String firstName, String secondName) {
-        System.out.println("Before method:" + joinPoint.getSignature());
-        System.out.println("Creating Employee with first name - " + firstName + ", second name - " + secondName + " and id - " + empId);
+        adviceLogger.log("Before method:{}", joinPoint.getSignature());
+        adviceLogger.log("Creating Employee with first name - {}, second name - {} and id - {}", firstName, secondName, empId);
+    }
+
+    //a bulk upload is advised once per batch, not once per employee
+    @Before(value = "execution(* com.example.aopbeforeadviceexample.io.spring.boot.service.EmployeeService.createEmployees(..)) && args(employees)")
+    public void beforeBatchAdvice(JoinPoint joinPoint, List<Employee> employees) {
+        adviceLogger.log("Before method:{}", joinPoint.getSignature());
+        adviceLogger.log("Creating {} Employees", employees.size());
     }
 }
@@ -0,0 +1,120 @@
+package com.example.aopbeforeadviceexample.io.spring.boot.store;
+
+import com.example.aopbeforeadviceexample.io.spring.boot.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeStoreTests {
+
+    private final EmployeeStore store = new EmployeeStore();
+
+    @Test
+    void findsFirstAndSecondNamesByPrefixIgnoringCase() {
+        store.put(employee("1", "Anna", "Smith"));
+        store.put(employee("2", "Bob", "Andrews"));
+        store.put(employee("3", "Carl", "Jones"));
+        store.put(employee("4", "ann", "Baker"));
+
+        assertThat(ids(store.search("AN", 0, 10))).containsExactly("2", "4", "1");
+        assertThat(ids(store.search("smi", 0, 10))).containsExactly("1");
+        assertThat(store.search("x", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void returnsEmployeeWithTwoMatchingNamesOnce() {
+        store.put(employee("1", "Anna", "Andrews"));
+
+        assertThat(ids(store.search("an", 0, 10))).containsExactly("1");
+    }
+
+    @Test
+    void pagesWithOffsetAndLimit() {
+        for (int i = 0; i < 10; i++) {
+            store.put(employee(String.valueOf(i), "Name" + i, null));
+        }
+
+        assertThat(ids(store.search("name", 0, 3))).containsExactly("0", "1", "2");
+        assertThat(ids(store.search("name", 8, 3))).containsExactly("8", "9");
+    }
+
+    @Test
+    void reindexesRenamedEmployee() {
+        store.put(employee("1", "Anna", "Smith"));
+
+        store.put(employee("1", "Berta", "Smith"));
+
+        assertThat(store.search("anna", 0, 10)).isEmpty();
+        assertThat(ids(store.search("berta", 0, 10))).containsExactly("1");
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void unindexesRemovedEmployee() {
+        store.put(employee("1", "Anna", "Smith"));
+
+        assertThat(store.remove("1").getFirstName()).isEqualTo("Anna");
+
+        assertThat(store.search("a", 0, 10)).isEmpty();
+        assertThat(store.get("1")).isNull();
+        assertThat(store.remove("1")).isNull();
+    }
+
+    @Test
+    void returnsOnlyMatchingEmployeesWhileTheyAreRenamed() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.put(employee(String.valueOf(i), "Anna", "Smith"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                int writer = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String empId = String.valueOf((i * 2 + writer) % 100);
+                        store.put(employee(empId, i % 2 == 0 ? "Berta" : "Anna", "Smith"));
+                    }
+                }));
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        for (Employee employee : store.search("ann", 0, 100)) {
+                            assertThat(employee.getFirstName()).isEqualTo("Anna");
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(store.search("smith", 0, 1_000)).hasSize(100);
+        assertThat(store.search("anna", 0, 1_000).size() + store.search("berta", 0, 1_000).size()).isEqualTo(100);
+    }
+
+    private static Employee employee(String empId, String firstName, String secondName) {
+        Employee employee = new Employee();
+        employee.setEmpId(empId);
+        employee.setFirstName(firstName);
+        employee.setSecondName(secondName);
+        return employee;
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        List<String> ids = new ArrayList<>();
+        for (Employee employee : employees) {
+            ids.add(employee.getEmpId());
+        }
+        return ids;
+    }
+}
@@ -1,38 +1,42 @@
 package com.example.aopreturningadvice.io.spring.boot.service.impl;
 
 import com.example.aopreturningadvice.io.spring.boot.model.Account;
+import com.example.aopreturningadvice.io.spring.boot.store.AccountStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-
 @Service
 public class AccountServiceImpl implements AccountService {
 
-    //storing account detail in the HashMap
-    private static Map<String, Account> map = null;
-
-    static {
-        map = new HashMap<>();
-        //adding account detail in the map
-        map.put("M4546779", new Account("10441117000", "Saving Account"));
-        map.put("K2434567", new Account("10863554577", "Current Account"));
-    }
+    //account details by customer id
+    @Autowired
+    AccountStore accountStore;
 
     @Override
     public Account getAccountByCustomerId(String customerId) throws Exception {
         if (customerId == null) {
             throw new Exception("Invalid! Customer Id");
         }
-        Account account = null;
-        Set<Map.Entry<String, Account>> entrySet = map.entrySet();
-        for (Map.Entry<String, Account> entry : entrySet) {
-            if (entry.getKey().equals(customerId)) {
-                account = entry.getValue();
-            }
+        return accountStore.get(customerId);
+    }
+
+    @Override
+    public void openAccount(String customerId, Account account) throws Exception {
+        if (customerId == null || account == null) {
+            throw new Exception("Invalid! Customer Id or Account");
+        }
+        if (!accountStore.open(customerId, account)) {
+            throw new Exception("Customer " + customerId + " already has an account");
+        }
+    }
+
+    //returns the closed account, or null when the customer has none
+    @Override
+    public Account closeAccount(String customerId) throws Exception {
+        if (customerId == null) {
+            throw new Exception("Invalid! Customer Id");
         }
-        return account;
+        return accountStore.close(customerId);
     }
 
 }
@@ -0,0 +1,106 @@
+package com.example.aopreturningadvice.io.spring.boot.store;
+
+import com.example.aopreturningadvice.io.spring.boot.model.Account;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory accounts by customer id.
+ * <p>
+ * Lookups are a single hash probe of a {@link ConcurrentHashMap} and never lock, so they scale with the number of
+ * reading threads and do not block while accounts are opened or closed. Opening and closing an account only locks
+ * the bin of its customer id.
+ * <p>
+ * When {@code accounts.file} is set, the accounts are loaded from that file at startup, one
+ * {@code customerId,accountNumber,accountType} line per account. The file is parsed on all cores.
+ */
+@Component
+public class AccountStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountStore.class);
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+
+    //a few account types are shared by millions of accounts, each is kept once
+    private final ConcurrentHashMap<String, String> accountTypes = new ConcurrentHashMap<>();
+
+    @Value("${accounts.file:}")
+    private String file;
+
+    public AccountStore() {
+        //adding account detail in the store
+        open("M4546779", new Account("10441117000", "Saving Account"));
+        open("K2434567", new Account("10863554577", "Current Account"));
+    }
+
+    @PostConstruct
+    public void loadAccounts() throws IOException {
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long loaded = load(Paths.get(file));
+        log.info("Loaded {} accounts from {} in {} ms", loaded, file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    public Account get(String customerId) {
+        return accounts.get(customerId);
+    }
+
+    //false when the customer already has an account
+    public boolean open(String customerId, Account account) {
+        return accounts.putIfAbsent(customerId, account) == null;
+    }
+
+    //the closed account, or null when the customer has none
+    public Account close(String customerId) {
+        return accounts.remove(customerId);
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    //adds the accounts of the file, an account in the file replaces an open account of the same customer
+    public long load(Path file) throws IOException {
+        LongAdder loaded = new LongAdder();
+        LongAdder malformed = new LongAdder();
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.parallel().forEach(line -> {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    return;
+                }
+                int first = line.indexOf(',');
+                int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+                if (first <= 0 || second < 0) {
+                    malformed.increment();
+                    return;
+                }
+                String accountType = line.substring(second + 1).trim();
+                Account account = new Account(line.substring(first + 1, second).trim(), accountTypes.computeIfAbsent(accountType, type -> type));
+                accounts.put(line.substring(0, first).trim(), account);
+                loaded.increment();
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (malformed.sum() > 0) {
+            log.warn("Skipped {} malformed lines of {}", malformed.sum(), file);
+        }
+        return loaded.sum();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.crudexample.io.spring.boot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits as many requests at a time as the connection pool has connections, when requests run on virtual threads.
+ * <p>
+ * A platform thread pool used to cap how many requests wait for a connection. Virtual threads remove that cap, so
+ * without admission thousands of requests would queue inside HikariCP and fail after its connection timeout. Here
+ * they wait in a fair semaphore instead, at most {@code db.admission.max-queue} of them and for at most
+ * {@code db.admission.max-wait}, and are answered with 503 and Retry-After when the wait is too long or the queue
+ * is full. Requests that are admitted find a free connection right away.
+ * <p>
+ * Only the endpoints listed in {@code db.admission.paths} use the database; other requests, such as the H2 console
+ * or static resources, pass without a permit.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConnectionAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final int maxQueue;
+
+    private final long maxWaitNanos;
+
+    private final String[] paths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ConnectionAdmissionFilter(DataSource dataSource,
+                                     @Value("${db.admission.permits:0}") int permits,
+                                     @Value("${db.admission.max-queue:1000}") int maxQueue,
+                                     @Value("${db.admission.max-wait:2s}") Duration maxWait,
+                                     @Value("${db.admission.paths}") String[] paths) {
+        //0 takes the size of the pool, each request holds at most one connection, 10 is Hikari's default size
+        if (permits <= 0) {
+            permits = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        }
+        this.permits = new Semaphore(permits, true);
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.paths = paths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many requests waiting for a database connection");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    //false when the queue is full or no permit became free in time
+    private boolean acquire() throws ServletException {
+        try {
+            //the timed tryAcquire keeps the fair order, the untimed one would take a free permit ahead of the waiting requests
+            return permits.tryAcquire(0, TimeUnit.NANOSECONDS) || await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for a database connection", ex);
+        }
+    }
+
+    private boolean await() throws InterruptedException {
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
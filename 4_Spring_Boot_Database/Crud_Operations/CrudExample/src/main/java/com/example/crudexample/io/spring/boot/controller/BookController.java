@@ -1,11 +1,18 @@
 package com.example.crudexample.io.spring.boot.controller;
 
+import com.example.crudexample.io.spring.boot.export.BookExporter;
 import com.example.crudexample.io.spring.boot.model.Book;
+import com.example.crudexample.io.spring.boot.model.BookPage;
 import com.example.crudexample.io.spring.boot.service.BookService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 
 @RestController
 public class BookController {
@@ -13,10 +20,40 @@ public class BookController {
     @Autowired
     BookService bookService;
 
-    // creating a get mapping that retrieves all the books detail from the database
+    @Autowired
+    BookExporter bookExporter;
+
+    // creating a get mapping that retrieves a page of books, after the cursor or, when a page is given, by offset
     @GetMapping("/book")
-    private List<Book> getAllBooks() {
-        return bookService.getAllBooks();
+    private BookPage getBooks(@RequestParam(defaultValue = "id") String sort,
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(required = false) Integer page,
+                              @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (page == null) {
+                return bookService.getBooksAfter(sort, cursor, size);
+            }
+            if (cursor != null) {
+                throw new IllegalArgumentException("Either a cursor or a page can be given, not both");
+            }
+            return bookService.getBooksPage(sort, page, size);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    // creating a get mapping that streams every book as NDJSON or CSV, written while they are read from the database
+    @GetMapping("/book/stream")
+    private void streamBooks(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        BookExporter.Format exportFormat;
+        try {
+            exportFormat = BookExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv, not " + format);
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bookExporter.export(exportFormat, response.getOutputStream());
     }
 
     // creating a get mapping that retrieves the detail of a specific book
@@ -0,0 +1,132 @@
+package com.example.crudexample.io.spring.boot.export;
+
+import com.example.crudexample.io.spring.boot.model.Book;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes every book, in id order, as NDJSON or CSV.
+ * <p>
+ * The books are read through a forward-only cursor, {@code books.export.fetch-size} rows per round trip to the
+ * database, and each book is written as soon as it is read. The persistence context is cleared after every fetch,
+ * so neither the session nor the response holds more than one fetch of books, whatever the size of the table.
+ */
+@Component
+public class BookExporter {
+
+    public enum Format {
+
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${books.export.fetch-size:1000}")
+    int fetchSize;
+
+    // returns the number of books written, out is flushed but not closed
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        // the transaction keeps the cursor open, PostgreSQL only fetches rows in steps while autocommit is off
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Book> books = session.createSelectionQuery("from Book order by id", Book.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            return format == Format.CSV ? writeCsv(books, session, out) : writeNdjson(books, session, out);
+        }
+    }
+
+    private long writeNdjson(ScrollableResults<Book> books, Session session, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (books.next()) {
+                Book book = books.get();
+                generator.writeStartObject();
+                generator.writeNumberField("id", book.getId());
+                generator.writeStringField("bookName", book.getBookName());
+                generator.writeStringField("author", book.getAuthor());
+                generator.writeNumberField("price", book.getPrice());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count % fetchSize == 0) {
+                    session.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(ScrollableResults<Book> books, Session session, OutputStream out) throws IOException {
+        long count = 0;
+        // not closed, that would close the response stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,bookName,author,price\r\n");
+        while (books.next()) {
+            Book book = books.get();
+            writer.write(String.valueOf(book.getId()));
+            writer.write(',');
+            writeCsvField(writer, book.getBookName());
+            writer.write(',');
+            writeCsvField(writer, book.getAuthor());
+            writer.write(',');
+            writer.write(String.valueOf(book.getPrice()));
+            writer.write("\r\n");
+            if (++count % fetchSize == 0) {
+                session.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180, a field with a comma, quote or line break is quoted and its quotes doubled, null is an empty field
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
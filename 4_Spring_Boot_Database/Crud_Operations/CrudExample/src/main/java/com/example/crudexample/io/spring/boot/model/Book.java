@@ -1,12 +1,17 @@
 package com.example.crudexample.io.spring.boot.model;
 
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.Id;
-import javax.persistence.Table;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
-@Table
+//pages sorted by price or author read these indexes in order, the id is indexed as the primary key
+@Table(indexes = {
+        @Index(name = "idx_book_price_id", columnList = "price, id"),
+        @Index(name = "idx_book_author_id", columnList = "author, id")
+})
 public class Book {
     @Id
     @Column
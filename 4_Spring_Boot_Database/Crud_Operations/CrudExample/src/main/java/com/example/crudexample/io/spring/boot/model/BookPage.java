@@ -0,0 +1,34 @@
+package com.example.crudexample.io.spring.boot.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// one page of books, next is the cursor of the following page and total is only counted for offset pages
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookPage {
+
+    private final List<Book> books;
+
+    private final String next;
+
+    private final Long total;
+
+    public BookPage(List<Book> books, String next, Long total) {
+        this.books = books;
+        this.next = next;
+        this.total = total;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
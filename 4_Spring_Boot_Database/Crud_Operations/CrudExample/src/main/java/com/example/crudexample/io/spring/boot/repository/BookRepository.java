@@ -1,8 +1,25 @@
 package com.example.crudexample.io.spring.boot.repository;
 
 import com.example.crudexample.io.spring.boot.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends CrudRepository<Book, Integer> {
+import java.util.List;
+
+public interface BookRepository extends CrudRepository<Book, Integer>, PagingAndSortingRepository<Book, Integer> {
+
+    // first keyset page, only the sort and size of the pageable are used
+    List<Book> findAllBy(Pageable pageable);
+
+    // the books after a cursor in id order, reads the primary key index from the cursor on
+    @Query("select b from Book b where b.id > :id order by b.id")
+    List<Book> findAfterId(@Param("id") int id, Pageable pageable);
+
+    // the books after a cursor in price order, ties are ordered by id so no book is skipped or repeated
+    @Query("select b from Book b where b.price > :price or (b.price = :price and b.id > :id) order by b.price, b.id")
+    List<Book> findAfterPrice(@Param("price") int price, @Param("id") int id, Pageable pageable);
 
 }
@@ -1,24 +1,70 @@
 package com.example.crudexample.io.spring.boot.service;
 
 import com.example.crudexample.io.spring.boot.model.Book;
+import com.example.crudexample.io.spring.boot.model.BookPage;
 import com.example.crudexample.io.spring.boot.repository.BookRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class BookService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // an offset page reads and drops every book before it, deeper pages have to use a cursor
+    public static final int MAX_OFFSET = 10_000;
+
     @Autowired
     BookRepository bookRepository;
 
-    // getting all books record by using the method findAll() of CrudRepository
-    public List<Book> getAllBooks() {
-        List<Book> books = new ArrayList<Book>();
-        bookRepository.findAll().forEach(books::add);
-        return books;
+    /**
+     * Getting the books after a cursor, sorted by id or by price and then id. A cursor is the sort key of the last
+     * book of the previous page, so every page seeks in an index and costs the same however deep it is. Books
+     * added or removed between two pages do not shift the pages after them.
+     */
+    public BookPage getBooksAfter(String sort, String cursor, int size) {
+        checkSize(size);
+        // one more book than the page tells whether there is a next page
+        PageRequest limit = PageRequest.ofSize(size + 1);
+        List<Book> books;
+        if (cursor == null) {
+            books = bookRepository.findAllBy(limit.withSort(keysetSort(sort)));
+        } else {
+            String[] key = decodeCursor(cursor, sort);
+            try {
+                books = "id".equals(sort)
+                        ? bookRepository.findAfterId(Integer.parseInt(key[1]), limit)
+                        : bookRepository.findAfterPrice(Integer.parseInt(key[1]), Integer.parseInt(key[2]), limit);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException("Invalid cursor " + cursor);
+            }
+        }
+        if (books.size() <= size) {
+            return new BookPage(books, null, null);
+        }
+        books = books.subList(0, size);
+        return new BookPage(books, encodeCursor(sort, books.get(size - 1)), null);
+    }
+
+    // getting a numbered page of books for small views, sorted by id, price or author
+    public BookPage getBooksPage(String sort, int page, int size) {
+        checkSize(size);
+        if (!"id".equals(sort) && !"price".equals(sort) && !"author".equals(sort)) {
+            throw new IllegalArgumentException("Books can be sorted by id, price or author, not " + sort);
+        }
+        if (page < 0 || (long) page * size > MAX_OFFSET) {
+            throw new IllegalArgumentException("Pages start at 0 and end at offset " + MAX_OFFSET + ", use a cursor beyond");
+        }
+        Sort order = "id".equals(sort) ? Sort.by("id") : Sort.by(sort, "id");
+        Page<Book> books = bookRepository.findAll(PageRequest.of(page, size, order));
+        return new BookPage(books.getContent(), null, books.getTotalElements());
     }
 
     // getting a specific record by using the method findById() of CrudRepository
@@ -43,4 +89,40 @@ public class BookService {
         bookRepository.save(book);
     }
 
+    private static void checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static Sort keysetSort(String sort) {
+        if ("id".equals(sort)) {
+            return Sort.by("id");
+        }
+        if ("price".equals(sort)) {
+            return Sort.by("price", "id");
+        }
+        throw new IllegalArgumentException("Cursor pages can be sorted by id or price, not " + sort);
+    }
+
+    // the cursor is "id:<id>" or "price:<price>:<id>", base64url encoded so clients pass it back as it is
+    private static String encodeCursor(String sort, Book last) {
+        String key = "id".equals(sort) ? "id:" + last.getId() : "price:" + last.getPrice() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, String sort) {
+        keysetSort(sort);
+        String[] key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor);
+        }
+        if (!key[0].equals(sort)) {
+            throw new IllegalArgumentException("The cursor is for pages sorted by " + key[0] + ", not " + sort);
+        }
+        return key;
+    }
+
 }
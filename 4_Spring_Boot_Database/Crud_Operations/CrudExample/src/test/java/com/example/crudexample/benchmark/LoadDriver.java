@@ -0,0 +1,116 @@
+package com.example.crudexample.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a running CrudExample like {@code hey -z 30s -c 2000}: every connection sends its next request as soon as
+ * the previous one is answered. It first adds BOOKS books through {@code POST /book}, then sends
+ * {@code GET /book?size=20} for WARMUP_SECONDS without counting and for RUN_SECONDS counting. It prints the
+ * requests per second, the latency percentiles and the number of responses per status. Requests that fail or time
+ * out are counted as errors.
+ * <p>
+ * Run the main method from the test sources with the base URL and the number of connections as arguments,
+ * e.g. {@code http://localhost:8080 2000}, and raise {@code ulimit -n} above the number of connections.
+ */
+public class LoadDriver {
+
+    private static final int BOOKS = 1000;
+    private static final long WARMUP_SECONDS = 10;
+    private static final long RUN_SECONDS = 30;
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(TIMEOUT)
+                    .executor(executor)
+                    .build();
+            addBooks(client, baseUrl);
+            run(client, executor, URI.create(baseUrl + "/book?size=20"), connections);
+        }
+    }
+
+    private static void addBooks(HttpClient client, String baseUrl) throws Exception {
+        for (int id = 1; id <= BOOKS; id++) {
+            String book = String.format("{\"id\":%d,\"bookName\":\"Book %d\",\"author\":\"Author %d\",\"price\":%d}",
+                    id, id, id % 50, id % 300);
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/book"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(book))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private static void run(HttpClient client, ExecutorService executor, URI uri, int connections) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(RUN_SECONDS);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder errors = new LongAdder();
+
+        //every connection keeps the latencies of the requests it sent within the measured seconds
+        List<Future<long[]>> latencies = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            latencies.add(executor.submit(() -> {
+                long[] latency = new long[256];
+                int count = 0;
+                long sent;
+                while ((sent = System.nanoTime()) < deadline) {
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception ex) {
+                        status = -1;
+                    }
+                    long answered = System.nanoTime();
+                    if (sent < measureFrom || answered > deadline) {
+                        continue;
+                    }
+                    if (status < 0) {
+                        errors.increment();
+                        continue;
+                    }
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    if (count == latency.length) {
+                        latency = Arrays.copyOf(latency, count * 2);
+                    }
+                    latency[count++] = answered - sent;
+                }
+                return Arrays.copyOf(latency, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> latency : latencies) {
+            long[] some = latency.get();
+            int from = all.length;
+            all = Arrays.copyOf(all, from + some.length);
+            System.arraycopy(some, 0, all, from, some.length);
+        }
+        Arrays.sort(all);
+        System.out.printf("%d requests, %.0f requests/s, %d errors, statuses %s%n", all.length,
+                all.length / (double) RUN_SECONDS, errors.sum(), new TreeMap<>(statuses));
+        for (double percentile : new double[] {50, 90, 99}) {
+            int index = Math.min(all.length - 1, (int) (percentile / 100 * all.length));
+            System.out.printf("p%.0f %,.0f ms%n", percentile, index < 0 ? 0 : all[index] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.crudexample.io.spring.boot.export;
+
+import com.example.crudexample.io.spring.boot.model.Book;
+import com.example.crudexample.io.spring.boot.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two books per fetch, so the persistence context is cleared while the books are written
+@DataJpaTest
+@Import(BookExporter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "books.export.fetch-size=2")
+class BookExporterTests {
+
+    @Autowired
+    BookExporter bookExporter;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void quotesCsvFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        bookRepository.save(book(1, "Plain", "Author", 100));
+        bookRepository.save(book(2, "Eats, Shoots & Leaves", "Lynne \"L.\" Truss", 200));
+        bookRepository.save(book(3, "Line\nBreak", "Carriage\rReturn", 300));
+        bookRepository.save(book(4, "No Author", null, 400));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = bookExporter.export(BookExporter.Format.CSV, out);
+
+        assertThat(count).isEqualTo(4);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,bookName,author,price\r\n"
+                + "1,Plain,Author,100\r\n"
+                + "2,\"Eats, Shoots & Leaves\",\"Lynne \"\"L.\"\" Truss\",200\r\n"
+                + "3,\"Line\nBreak\",\"Carriage\rReturn\",300\r\n"
+                + "4,No Author,,400\r\n");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLineInIdOrder() throws IOException {
+        for (int id = 5; id >= 1; id--) {
+            bookRepository.save(book(id, "Book \"" + id + "\"\n", "Author", 100 + id));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = bookExporter.export(BookExporter.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(5);
+        assertThat(lines).hasSize(5);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode book = objectMapper.readTree(lines[i]);
+            assertThat(book.get("id").asInt()).isEqualTo(i + 1);
+            assertThat(book.get("bookName").asText()).isEqualTo("Book \"" + (i + 1) + "\"\n");
+            assertThat(book.get("price").asInt()).isEqualTo(101 + i);
+        }
+    }
+
+    @Test
+    void writesOnlyHeaderWithoutBooks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(bookExporter.export(BookExporter.Format.CSV, out)).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,bookName,author,price\r\n");
+    }
+
+    private static Book book(int id, String bookName, String author, int price) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookName(bookName);
+        book.setAuthor(author);
+        book.setPrice(price);
+        return book;
+    }
+}
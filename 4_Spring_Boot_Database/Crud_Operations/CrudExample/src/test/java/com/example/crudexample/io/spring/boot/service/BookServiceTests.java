@@ -0,0 +1,137 @@
+package com.example.crudexample.io.spring.boot.service;
+
+import com.example.crudexample.io.spring.boot.model.Book;
+import com.example.crudexample.io.spring.boot.model.BookPage;
+import com.example.crudexample.io.spring.boot.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(BookService.class)
+class BookServiceTests {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void addBooks() {
+        // prices repeat, so pages sorted by price have to order ties by id
+        for (int id = 1; id <= 25; id++) {
+            bookRepository.save(book(id, "Author " + (id % 4), 100 + id % 5));
+        }
+    }
+
+    @Test
+    void walksAllBooksByIdWithCursors() {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            BookPage page = bookService.getBooksAfter("id", cursor, 10);
+            page.getBooks().forEach(book -> ids.add(book.getId()));
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(ids).hasSize(25).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void walksAllBooksByPriceWithCursorsOrderingTiesById() {
+        List<Book> books = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookPage page = bookService.getBooksAfter("price", cursor, 4);
+            books.addAll(page.getBooks());
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertThat(books).hasSize(25);
+        for (int i = 1; i < books.size(); i++) {
+            Book previous = books.get(i - 1);
+            Book book = books.get(i);
+            assertThat(book.getPrice() > previous.getPrice()
+                    || book.getPrice() == previous.getPrice() && book.getId() > previous.getId()).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFollowingPagesWhenBooksAreAddedBeforeCursor() {
+        BookPage first = bookService.getBooksAfter("id", null, 10);
+        bookRepository.deleteById(1);
+        bookRepository.save(book(0, "Author", 100));
+
+        BookPage second = bookService.getBooksAfter("id", first.getNext(), 10);
+
+        assertThat(second.getBooks().get(0).getId()).isEqualTo(11);
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        assertThatThrownBy(() -> bookService.getBooksAfter("id", "not base64!", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor not base64!");
+        assertThatThrownBy(() -> bookService.getBooksAfter("id", cursor("id:x"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> bookService.getBooksAfter("price", cursor("price:100"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> bookService.getBooksAfter("id", cursor("price:100:3"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The cursor is for pages sorted by price, not id");
+        assertThatThrownBy(() -> bookService.getBooksAfter("author", cursor("author:x:3"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor pages can be sorted by id or price, not author");
+    }
+
+    @Test
+    void countsBooksOfOffsetPages() {
+        BookPage page = bookService.getBooksPage("author", 1, 10);
+
+        assertThat(page.getBooks()).hasSize(10);
+        assertThat(page.getTotal()).isEqualTo(25);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void rejectsOffsetPagesBeyondMaxOffsetAndInvalidSizes() {
+        assertThatThrownBy(() -> bookService.getBooksPage("id", BookService.MAX_OFFSET / 10 + 1, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("use a cursor beyond");
+        assertThatThrownBy(() -> bookService.getBooksPage("bookName", 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookService.getBooksAfter("id", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookService.getBooksAfter("id", null, BookService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String cursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Book book(int id, String author, int price) {
+        Book book = new Book();
+        book.setId(id);
+        book.setBookName("Book " + id);
+        book.setAuthor(author);
+        book.setPrice(price);
+        return book;
+    }
+}
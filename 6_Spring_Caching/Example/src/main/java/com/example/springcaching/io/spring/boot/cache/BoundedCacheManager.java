@@ -0,0 +1,186 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cache manager whose caches are bounded by size or weight and expire after write or access.
+ * <p>
+ * The caches are backed by Caffeine, which admits and evicts entries with W-TinyLFU: a new entry
+ * only displaces an old one when it has been seen more often, so a one-off scan over many keys
+ * does not flush the frequently used entries out of the cache.
+ * <p>
+ * Caches with single-flight enabled are wrapped in a {@link SingleFlightCache}, which loads a missing key
+ * once for all concurrent callers and refreshes entries ahead of their expiry. Every cache is wrapped in an
+ * {@link InstrumentedCache} that records its hits, misses, evictions and load times.
+ */
+public class BoundedCacheManager extends AbstractCacheManager implements BeanNameAware, DisposableBean {
+
+    private static final long DEFAULT_REFRESH_ENTRIES = 10_000;
+
+    private final CacheProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    //reloads entries in the background, a refresh is skipped when all threads are busy
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private CacheListener cacheListener;
+
+    //tags the cache meters like Spring Boot does, with the bean name of the cache manager
+    private String beanName = "cacheManager";
+
+    public BoundedCacheManager(CacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(0, properties.getRefreshThreads(), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+    }
+
+    @Override
+    public void setBeanName(String beanName) {
+        this.beanName = beanName;
+    }
+
+    //has to be set before the caches are created, null for none
+    public void setCacheListener(CacheListener cacheListener) {
+        this.cacheListener = cacheListener;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (Map.Entry<String, CacheProperties.Spec> entry : properties.getCaches().entrySet()) {
+            caches.add(createCache(entry.getKey(), entry.getValue()));
+        }
+        return caches;
+    }
+
+    //caches that are not configured explicitly are created on first use with the default limits
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name, properties.getDefaults());
+    }
+
+    //entries that expire or are evicted count as changes for the cache listener, like puts and evicts
+    protected Cache createCache(String name, CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = newBuilder(name, spec);
+        Consumer<Object> evicted = cacheListener != null ? key -> cacheListener.changed(name, key) : key -> {
+        };
+        if (spec.getOffHeapCapacity() != null) {
+            OffHeapStore offHeap = new OffHeapStore(spec.getOffHeapCapacity().toBytes(), evicted);
+            if (cacheListener != null) {
+                //entries evicted for size are moved off-heap, the two-level cache reports those it drops
+                builder.removalListener((key, value, cause) -> {
+                    if (key != null && cause.wasEvicted() && cause != RemovalCause.SIZE) {
+                        evicted.accept(key);
+                    }
+                });
+            }
+            return new TwoLevelCache(name, builder, offHeap, spec.getPromoteAfterHits(), offHeapTtl(spec).toNanos(), evicted);
+        }
+        if (cacheListener != null) {
+            builder.removalListener((key, value, cause) -> {
+                if (key != null && cause.wasEvicted()) {
+                    evicted.accept(key);
+                }
+            });
+        }
+        return new CaffeineCache(name, builder.build());
+    }
+
+    //every cache is instrumented, single-flight sits between the metrics and the cache itself
+    //the listener wraps the cache itself, so it also sees the writes of single-flight loads and refreshes
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        CacheProperties.Spec spec = properties.getSpec(cache.getName());
+        if (cacheListener != null) {
+            cache = new ListenedCache(cache, cacheListener);
+        }
+        if (spec.isSingleFlight()) {
+            cache = singleFlight(cache, spec);
+        }
+        return new InstrumentedCache(cache, beanName, meterRegistry);
+    }
+
+    private Cache singleFlight(Cache cache, CacheProperties.Spec spec) {
+        Duration refreshAfterWrite = spec.getRefreshAfterWrite();
+        if (refreshAfterWrite == null) {
+            return new SingleFlightCache(cache);
+        }
+        if (spec.getExpireAfterWrite() != null && refreshAfterWrite.compareTo(spec.getExpireAfterWrite()) >= 0) {
+            throw new IllegalStateException("Cache '" + cache.getName() + "' must refresh before it expires, refresh-after-write has to be shorter than expire-after-write");
+        }
+        Duration expireAfterWrite = spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : Duration.ZERO;
+        return new SingleFlightCache(cache, refreshAfterWrite, refreshExecutor, expireAfterWrite, maximumEntries(spec));
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private long maximumEntries(CacheProperties.Spec spec) {
+        if (spec.getMaximumSize() != null) {
+            return spec.getMaximumSize();
+        }
+        if (spec.getMaximumWeight() != null) {
+            return spec.getMaximumWeight();
+        }
+        return DEFAULT_REFRESH_ENTRIES;
+    }
+
+    //an off-heap entry lives at most as long as the heap entry it was moved from could have
+    private Duration offHeapTtl(CacheProperties.Spec spec) {
+        if (spec.getExpireAfterWrite() != null) {
+            return spec.getExpireAfterWrite();
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            return spec.getExpireAfterAccess();
+        }
+        return Duration.ZERO;
+    }
+
+    protected Caffeine<Object, Object> newBuilder(String name, CacheProperties.Spec spec) {
+        if (spec.getMaximumSize() != null && spec.getMaximumWeight() != null) {
+            throw new IllegalStateException("Cache '" + name + "' cannot set both maximum-size and maximum-weight");
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(new EntryWeigher());
+        }
+        //variable expiry lets a cache snapshot restore entries with the time they had left, Caffeine cannot combine it with
+        //expireAfterAccess, the two-level cache keeps those deadlines itself
+        if (spec.getExpireAfterWrite() != null && spec.getExpireAfterAccess() == null) {
+            builder.expireAfter(new WriteExpiry(spec.getExpireAfterWrite()));
+        } else if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        return builder;
+    }
+}
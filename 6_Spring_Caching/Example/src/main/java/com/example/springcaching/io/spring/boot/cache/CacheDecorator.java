@@ -0,0 +1,85 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+//base class of caches that add behaviour to another cache, every operation is passed on unchanged
+public abstract class CacheDecorator implements Cache {
+
+    protected final Cache delegate;
+
+    protected CacheDecorator(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    //finds the cache of the given type in a chain of decorators, or null if there is none
+    public static <T extends Cache> T unwrap(Cache cache, Class<T> type) {
+        while (cache != null) {
+            if (type.isInstance(cache)) {
+                return type.cast(cache);
+            }
+            cache = cache instanceof CacheDecorator ? ((CacheDecorator) cache).getDelegate() : null;
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of the cache keys Spring generates for the cached methods: {@link SimpleKey#EMPTY} for
+ * methods without parameters and the parameter itself for methods with a single int, long or String parameter.
+ */
+public final class CacheKeyCodec {
+
+    private static final byte EMPTY = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte STRING = 3;
+
+    private CacheKeyCodec() {
+    }
+
+    //returns null for keys of other types
+    public static byte[] encode(Object key) {
+        if (SimpleKey.EMPTY.equals(key)) {
+            return new byte[]{EMPTY};
+        }
+        if (key instanceof Integer) {
+            return ByteBuffer.allocate(5).put(INTEGER).putInt((Integer) key).array();
+        }
+        if (key instanceof Long) {
+            return ByteBuffer.allocate(9).put(LONG).putLong((Long) key).array();
+        }
+        if (key instanceof String) {
+            byte[] bytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(1 + bytes.length).put(STRING).put(bytes).array();
+        }
+        return null;
+    }
+
+    public static Object decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte tag = buffer.get();
+        switch (tag) {
+            case EMPTY:
+                return SimpleKey.EMPTY;
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case STRING:
+                return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalArgumentException("Unknown key encoding: " + tag);
+        }
+    }
+}
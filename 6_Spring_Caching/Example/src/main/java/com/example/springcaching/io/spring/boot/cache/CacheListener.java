@@ -0,0 +1,15 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+/**
+ * Told about the reads and changes of the caches of the {@link BoundedCacheManager}, or of the simple cache manager.
+ * Called on the thread that reads or changes the cache, so implementations have to be quick.
+ */
+public interface CacheListener {
+
+    void read(String cacheName, Object key);
+
+    //the key was written or evicted
+    void changed(String cacheName, Object key);
+
+    void cleared(String cacheName);
+}
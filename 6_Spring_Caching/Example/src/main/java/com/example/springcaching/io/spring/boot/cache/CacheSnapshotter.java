@@ -0,0 +1,300 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the hottest entries of the configured caches to a file on shutdown and loads them back on startup,
+ * so a restarted application does not begin with empty caches.
+ * <p>
+ * The file holds a header (magic, version, time written) and per cache its name followed by length prefixed
+ * key and value records, encoded with {@link CacheKeyCodec} and {@link CustomerCodec}, and the time each entry
+ * expires after write. Entries of other types are not written. Entries are restored with the time to live they
+ * had left and dropped once it is over, so a snapshot never serves an entry longer than the cache would have.
+ * Caches that expire after both write and access can only take a shorter time to live for a single entry when
+ * they are two-level caches; the entries of other such caches are not restored. Loading reads the file as a
+ * stream on one thread and decodes and puts the records in batches on {@code load-threads} threads.
+ * <p>
+ * The snapshot is loaded in {@link #start()}, before the web server accepts requests, and written in
+ * {@link #stop()}, after the web server has finished its requests.
+ */
+public class CacheSnapshotter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotter.class);
+
+    private static final int MAGIC = 0x43534e50;
+    private static final byte VERSION = 2;
+
+    private static final byte END = 0;
+    private static final byte CACHE = 1;
+    private static final byte ENTRY = 2;
+    private static final byte END_OF_CACHE = 3;
+
+    private static final int BATCH_SIZE = 256;
+
+    //expiry time of entries that do not expire after write
+    private static final long NEVER = -1;
+
+    private final CacheManager cacheManager;
+
+    private final CacheProperties.Snapshot properties;
+
+    private volatile boolean running;
+
+    public CacheSnapshotter(CacheManager cacheManager, CacheProperties.Snapshot properties) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Path file = properties.getFile();
+        if (!Files.exists(file)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            long loaded = load(file);
+            log.info("Loaded {} cache entries from {} in {} ms", loaded, file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not load cache snapshot {}, starting with empty caches", file, ex);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Path file = properties.getFile();
+        long started = System.nanoTime();
+        try {
+            long written = write(file);
+            log.info("Wrote {} cache entries to {} in {} ms", written, file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write cache snapshot {}", file, ex);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    //the web server starts in phase MAX_VALUE - 2048, a lower phase starts before it and stops after it
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+
+    public long write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        long written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            long writtenAt = System.currentTimeMillis();
+            out.writeLong(writtenAt);
+            for (String cacheName : properties.getCaches()) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache == null) {
+                    continue;
+                }
+                out.writeByte(CACHE);
+                out.writeUTF(cacheName);
+                int entries = 0;
+                for (Map.Entry<?, ?> entry : hottest(cache).entrySet()) {
+                    if (entries == properties.getMaxEntries()) {
+                        break;
+                    }
+                    long remainingNanos = remainingTtlNanos(cache, entry.getKey());
+                    byte[] key = remainingNanos != 0 ? CacheKeyCodec.encode(entry.getKey()) : null;
+                    byte[] value = key != null ? CustomerCodec.encode(entry.getValue()) : null;
+                    if (value == null) {
+                        continue;
+                    }
+                    out.writeByte(ENTRY);
+                    out.writeInt(key.length);
+                    out.write(key);
+                    out.writeInt(value.length);
+                    out.write(value);
+                    out.writeLong(remainingNanos < 0 ? NEVER : writtenAt + TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+                    entries++;
+                }
+                out.writeByte(END_OF_CACHE);
+                written += entries;
+            }
+            out.writeByte(END);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        //replace the old snapshot only once the new one is complete
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    public long load(Path file) throws IOException {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-snapshot-");
+        int threads = properties.getLoadThreads();
+        //a full queue makes the reading thread decode a batch itself, which keeps memory use flat
+        ThreadPoolExecutor loaders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 2), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicLong loaded = new AtomicLong();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            long writtenAt = in.readLong();
+            if (System.currentTimeMillis() - writtenAt > properties.getMaxAge().toMillis()) {
+                log.info("Cache snapshot {} is older than {}, ignoring it", file, properties.getMaxAge());
+                return 0;
+            }
+            for (byte tag = in.readByte(); tag == CACHE; tag = in.readByte()) {
+                String cacheName = in.readUTF();
+                Cache cache = properties.getCaches().contains(cacheName) ? cacheManager.getCache(cacheName) : null;
+                List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+                int entries = 0;
+                for (byte entryTag = in.readByte(); entryTag == ENTRY; entryTag = in.readByte()) {
+                    byte[] key = new byte[in.readInt()];
+                    in.readFully(key);
+                    byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+                    long expiresAt = in.readLong();
+                    if (cache == null || entries >= properties.getMaxEntries()
+                            || (expiresAt != NEVER && expiresAt <= System.currentTimeMillis())) {
+                        continue;
+                    }
+                    entries++;
+                    batch.add(new Entry(key, value, expiresAt));
+                    if (batch.size() == BATCH_SIZE) {
+                        loaders.execute(putAll(cache, batch, loaded));
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+                }
+                if (cache != null && !batch.isEmpty()) {
+                    loaders.execute(putAll(cache, batch, loaded));
+                }
+            }
+        } finally {
+            loaders.shutdown();
+            try {
+                loaders.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return loaded.get();
+    }
+
+    private static Runnable putAll(Cache cache, List<Entry> batch, AtomicLong loaded) {
+        return () -> {
+            for (Entry entry : batch) {
+                if (restore(cache, CacheKeyCodec.decode(entry.key), CustomerCodec.decode(entry.value), entry.expiresAt)) {
+                    loaded.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    //puts the entry with the time to live it has left, false if the cache cannot shorten the time to live of one entry
+    private static boolean restore(Cache cache, Object key, Object value, long expiresAt) {
+        //restored entries bypass the decorators, nothing has read or counted them yet
+        if (expiresAt == NEVER) {
+            undecorated(cache).put(key, value);
+            return true;
+        }
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(expiresAt - System.currentTimeMillis());
+        if (ttlNanos <= 0) {
+            return false;
+        }
+        TwoLevelCache twoLevelCache = CacheDecorator.unwrap(cache, TwoLevelCache.class);
+        if (twoLevelCache != null) {
+            twoLevelCache.put(key, value, ttlNanos);
+            return true;
+        }
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            @SuppressWarnings("unchecked")
+            Optional<Policy.VarExpiration<Object, Object>> expireVariably =
+                    ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).policy().expireVariably();
+            if (expireVariably.isPresent()) {
+                expireVariably.get().put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //the cache at the end of a chain of decorators
+    private static Cache undecorated(Cache cache) {
+        while (cache instanceof CacheDecorator) {
+            cache = ((CacheDecorator) cache).getDelegate();
+        }
+        return cache;
+    }
+
+    //-1 when the cache does not expire entries after write, 0 when the entry is gone
+    private static long remainingTtlNanos(Cache cache, Object key) {
+        TwoLevelCache twoLevelCache = CacheDecorator.unwrap(cache, TwoLevelCache.class);
+        if (twoLevelCache != null) {
+            return twoLevelCache.remainingTtlNanos(key);
+        }
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return WriteExpiry.remainingNanos((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache, key);
+        }
+        return -1;
+    }
+
+    //the most frequently used entries first, as ranked by the cache's eviction policy
+    private Map<?, ?> hottest(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = (com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache;
+            Optional<? extends Policy.Eviction<?, ?>> eviction = caffeine.policy().eviction();
+            if (eviction.isPresent()) {
+                return eviction.get().hottest(properties.getMaxEntries());
+            }
+            return caffeine.asMap();
+        }
+        return nativeCache instanceof Map ? (Map<?, ?>) nativeCache : Map.of();
+    }
+
+    private static final class Entry {
+
+        final byte[] key;
+        final byte[] value;
+        final long expiresAt;
+
+        Entry(byte[] key, byte[] value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.example.springcaching.io.spring.boot.model.Customer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary encoding of cached {@link Customer} values.
+ * <p>
+ * A value is a tag byte followed by one record (a single customer) or a record count and the
+ * records (a list of customers). A record is accountNo (int), customerName and accountType
+ * (length prefixed UTF-8, -1 for null) and balance (double).
+ */
+public final class CustomerCodec {
+
+    private static final byte CUSTOMER = 1;
+    private static final byte CUSTOMER_LIST = 2;
+
+    //object header plus fields of a Customer, a String and an array with compressed oops
+    private static final int CUSTOMER_HEAP_BYTES = 32;
+    private static final int STRING_HEAP_BYTES = 24 + 16;
+    private static final int LIST_HEAP_BYTES = 24 + 16;
+
+    private CustomerCodec() {
+    }
+
+    public static boolean canEncode(Object value) {
+        if (value instanceof Customer) {
+            return true;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (!(element instanceof Customer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    //returns null when the value is not a customer or a collection of customers
+    public static byte[] encode(Object value) {
+        if (!canEncode(value)) {
+            return null;
+        }
+        if (value instanceof Customer) {
+            Customer customer = (Customer) value;
+            ByteBuffer buffer = ByteBuffer.allocate(1 + recordSize(customer));
+            buffer.put(CUSTOMER);
+            writeRecord(buffer, customer);
+            return buffer.array();
+        }
+        Collection<?> customers = (Collection<?>) value;
+        int size = 1 + 4;
+        for (Object customer : customers) {
+            size += recordSize((Customer) customer);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(CUSTOMER_LIST);
+        buffer.putInt(customers.size());
+        for (Object customer : customers) {
+            writeRecord(buffer, (Customer) customer);
+        }
+        return buffer.array();
+    }
+
+    public static Object decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte tag = buffer.get();
+        if (tag == CUSTOMER) {
+            return readRecord(buffer);
+        }
+        if (tag == CUSTOMER_LIST) {
+            int count = buffer.getInt();
+            List<Customer> customers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                customers.add(readRecord(buffer));
+            }
+            return customers;
+        }
+        throw new IllegalArgumentException("Unknown customer encoding: " + tag);
+    }
+
+    //rough heap footprint of a cached value, used to report how much memory the heap tier holds
+    public static long estimateHeapBytes(Object value) {
+        if (value instanceof Customer) {
+            Customer customer = (Customer) value;
+            return CUSTOMER_HEAP_BYTES + stringHeapBytes(customer.getCustomerName()) + stringHeapBytes(customer.getAccountType());
+        }
+        if (value instanceof Collection) {
+            long bytes = LIST_HEAP_BYTES;
+            for (Object element : (Collection<?>) value) {
+                bytes += 4 + estimateHeapBytes(element);
+            }
+            return bytes;
+        }
+        return 0;
+    }
+
+    private static long stringHeapBytes(String value) {
+        return value == null ? 0 : STRING_HEAP_BYTES + value.length();
+    }
+
+    private static int recordSize(Customer customer) {
+        return 4 + stringSize(customer.getCustomerName()) + stringSize(customer.getAccountType()) + 8;
+    }
+
+    private static int stringSize(String value) {
+        return 4 + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static void writeRecord(ByteBuffer buffer, Customer customer) {
+        buffer.putInt(customer.getAccountNo());
+        writeString(buffer, customer.getCustomerName());
+        writeString(buffer, customer.getAccountType());
+        buffer.putDouble(customer.getBalance());
+    }
+
+    private static Customer readRecord(ByteBuffer buffer) {
+        int accountNo = buffer.getInt();
+        String customerName = readString(buffer);
+        String accountType = readString(buffer);
+        double balance = buffer.getDouble();
+        return new Customer(accountNo, customerName, accountType, balance);
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
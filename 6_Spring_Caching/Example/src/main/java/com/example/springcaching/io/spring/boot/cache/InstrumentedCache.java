@@ -0,0 +1,181 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.example.springcaching.io.spring.boot.model.CacheStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache decorator that records hits, misses, puts, evictions and load times as Micrometer meters
+ * tagged with the cache name ({@code cache}) and the bean name of its cache manager ({@code cacheManager}).
+ * <p>
+ * The meters follow Micrometer's cache naming ({@code cache.gets}, {@code cache.puts}, {@code cache.evictions},
+ * {@code cache.size}, {@code cache.load.duration}) and the tags of Spring Boot's cache metrics, so dashboards built
+ * for those work unchanged. They show up under /actuator/metrics. Load times are only
+ * known when the value is loaded through {@link #get(Object, Callable)}, which is how single-flight caches load.
+ */
+public class InstrumentedCache extends CacheDecorator {
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter puts;
+
+    private final Timer loadSuccess;
+
+    private final Timer loadFailure;
+
+    private final FunctionCounter evictions;
+
+    private final FunctionCounter offHeapEvictions;
+
+    private final Gauge size;
+
+    public InstrumentedCache(Cache delegate, String cacheManagerName, MeterRegistry registry) {
+        super(delegate);
+        Tags tags = Tags.of("cache", delegate.getName(), "cacheManager", cacheManagerName);
+        this.hits = Counter.builder("cache.gets").tags(tags).tag("result", "hit")
+                .description("Lookups that found the key in the cache").register(registry);
+        this.misses = Counter.builder("cache.gets").tags(tags).tag("result", "miss")
+                .description("Lookups that had to load the key").register(registry);
+        this.puts = Counter.builder("cache.puts").tags(tags)
+                .description("Entries added to the cache").register(registry);
+        this.loadSuccess = loadTimer(tags, "success", registry);
+        this.loadFailure = loadTimer(tags, "failure", registry);
+
+        //the heap level is a Caffeine cache built with recordStats()
+        com.github.benmanes.caffeine.cache.Cache<?, ?> heap = (com.github.benmanes.caffeine.cache.Cache<?, ?>) delegate.getNativeCache();
+        this.evictions = FunctionCounter.builder("cache.evictions", heap, c -> c.stats().evictionCount())
+                .tags(tags).tag("level", "heap")
+                .description("Entries evicted from the heap for size or expiry").register(registry);
+        this.size = Gauge.builder("cache.size", heap, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .tags(tags)
+                .description("Entries in the heap level of the cache").register(registry);
+        TwoLevelCache twoLevelCache = unwrap(delegate, TwoLevelCache.class);
+        if (twoLevelCache != null) {
+            this.offHeapEvictions = FunctionCounter.builder("cache.evictions", twoLevelCache.getOffHeapStore(), s -> s.usage().getEvictions())
+                    .tags(tags).tag("level", "off-heap")
+                    .description("Entries evicted from the off-heap level").register(registry);
+        } else {
+            this.offHeapEvictions = null;
+        }
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        return value != null ? type.cast(value.get()) : null;
+    }
+
+    //callers that waited for the load of another caller count as hits, the same way Caffeine counts them
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        TimedLoader<T> loader = new TimedLoader<>(valueLoader);
+        try {
+            return delegate.get(key, loader);
+        } finally {
+            (loader.invoked ? misses : hits).increment();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    public CacheStatistics statistics() {
+        CacheStatistics statistics = new CacheStatistics(getName());
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        statistics.setHits(hitCount);
+        statistics.setMisses(missCount);
+        statistics.setHitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        statistics.setPuts((long) puts.count());
+        statistics.setEvictions((long) evictions.count());
+        statistics.setOffHeapEvictions(offHeapEvictions != null ? (long) offHeapEvictions.count() : 0);
+        statistics.setSize((long) size.value());
+        statistics.setLoadFailures(loadFailure.count());
+
+        HistogramSnapshot snapshot = loadSuccess.takeSnapshot();
+        statistics.setLoads(snapshot.count());
+        statistics.setLoadTimeMeanMillis(snapshot.mean(TimeUnit.MILLISECONDS));
+        statistics.setLoadTimeMaxMillis(snapshot.max(TimeUnit.MILLISECONDS));
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        statistics.setLoadTimePercentilesMillis(percentiles);
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            histogram.put("le " + bucket.bucket(TimeUnit.MILLISECONDS), (long) bucket.count());
+        }
+        statistics.setLoadTimeHistogramMillis(histogram);
+        return statistics;
+    }
+
+    private static Timer loadTimer(Tags tags, String result, MeterRegistry registry) {
+        return Timer.builder("cache.load.duration").tags(tags).tag("result", result)
+                .description("Time spent loading missing or refreshed entries")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private final class TimedLoader<T> implements Callable<T> {
+
+        private final Callable<T> loader;
+
+        private volatile boolean invoked;
+
+        TimedLoader(Callable<T> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public T call() throws Exception {
+            invoked = true;
+            long start = System.nanoTime();
+            try {
+                T value = loader.call();
+                loadSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return value;
+            } catch (Exception | Error ex) {
+                loadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        }
+    }
+}
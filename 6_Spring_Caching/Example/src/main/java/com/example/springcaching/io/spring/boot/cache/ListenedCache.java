@@ -0,0 +1,75 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+//passes the reads and changes of a cache on to a CacheListener
+public class ListenedCache extends CacheDecorator {
+
+    private final CacheListener listener;
+
+    public ListenedCache(Cache delegate, CacheListener listener) {
+        super(delegate);
+        this.listener = listener;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        listener.read(getName(), key);
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        listener.read(getName(), key);
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        listener.read(getName(), key);
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        listener.changed(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            listener.changed(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        listener.changed(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        listener.changed(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        listener.cleared(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        listener.cleared(getName());
+        return invalidated;
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Byte array store that keeps its values in direct {@link ByteBuffer}s outside the Java heap.
+ * <p>
+ * Memory is reserved in segments up to the configured capacity and handed out in power of two
+ * blocks by a buddy allocator: a larger free block is split in halves when a smaller one is needed,
+ * and a freed block is merged with its free buddy again, so space freed by small values can hold
+ * large ones. When no block of the needed size is left, the least recently used value of that size
+ * is evicted, or of another size when there is none, until the blocks freed add up to one that
+ * fits. Only the key index lives on the heap.
+ * <p>
+ * All operations run under one lock. The store is the second level behind a heap cache, so it
+ * only sees the misses of that cache. The keys of evicted and expired values are passed to a
+ * listener, under the lock, so it has to be quick.
+ */
+public class OffHeapStore {
+
+    private static final int MIN_BLOCK_SHIFT = 6;
+    private static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final long capacity;
+    private final int segmentSize;
+    private final int sizeClasses;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    //segment << 32 | offset of the free blocks of each size class, blocks are aligned to their size
+    private final LinkedHashSet<Long>[] freeBlocks;
+    //one access ordered index per size class, so eviction frees a block that fits
+    private final LinkedHashMap<Object, Slot>[] lruBySizeClass;
+    private final Map<Object, Slot> index = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Consumer<Object> evictionListener;
+
+    private long usedBytes;
+    private long payloadBytes;
+    private long evictions;
+
+    public OffHeapStore(long capacity) {
+        this(capacity, key -> {
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public OffHeapStore(long capacity, Consumer<Object> evictionListener) {
+        if (capacity < (1 << MIN_BLOCK_SHIFT)) {
+            throw new IllegalArgumentException("Off-heap capacity is too small: " + capacity);
+        }
+        this.capacity = capacity;
+        this.evictionListener = evictionListener;
+        this.segmentSize = Integer.highestOneBit((int) Math.min(capacity, MAX_SEGMENT_SIZE));
+        this.sizeClasses = Integer.numberOfTrailingZeros(segmentSize) - MIN_BLOCK_SHIFT + 1;
+        this.freeBlocks = new LinkedHashSet[sizeClasses];
+        this.lruBySizeClass = new LinkedHashMap[sizeClasses];
+        for (int i = 0; i < sizeClasses; i++) {
+            freeBlocks[i] = new LinkedHashSet<>();
+            lruBySizeClass[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    //returns the stored value together with the number of reads it has served, or null if absent or expired
+    public Read get(Object key) {
+        lock.lock();
+        try {
+            Slot slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            if (slot.expiresAt != 0 && System.nanoTime() - slot.expiresAt > 0) {
+                remove(key, slot);
+                evictionListener.accept(key);
+                return null;
+            }
+            lruBySizeClass[slot.sizeClass].get(key);
+            byte[] bytes = new byte[slot.length];
+            ByteBuffer segment = segments.get(slot.segment);
+            segment.position(slot.offset);
+            segment.get(bytes);
+            slot.hits++;
+            return new Read(bytes, slot.hits, slot.expiresAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //removes the value and returns it, or null if absent or expired
+    public Read take(Object key) {
+        lock.lock();
+        try {
+            Read read = get(key);
+            if (read != null) {
+                remove(key, index.get(key));
+            }
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //stores the value, ttlNanos of 0 keeps it until it is evicted; returns false if it does not fit
+    public boolean put(Object key, byte[] bytes, long ttlNanos) {
+        if (bytes.length > segmentSize) {
+            return false;
+        }
+        int sizeClass = sizeClass(bytes.length);
+        lock.lock();
+        try {
+            Slot previous = index.get(key);
+            if (previous != null) {
+                remove(key, previous);
+            }
+            long block = allocate(sizeClass);
+            if (block < 0) {
+                return false;
+            }
+            Slot slot = new Slot((int) (block >>> 32), (int) block, bytes.length, sizeClass);
+            //0 means no expiry, so a deadline that happens to be 0 is moved by a nanosecond
+            slot.expiresAt = ttlNanos > 0 ? (System.nanoTime() + ttlNanos) | 1 : 0;
+            ByteBuffer segment = segments.get(slot.segment);
+            segment.position(slot.offset);
+            segment.put(bytes);
+            index.put(key, slot);
+            lruBySizeClass[sizeClass].put(key, slot);
+            usedBytes += blockSize(sizeClass);
+            payloadBytes += bytes.length;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Object key) {
+        lock.lock();
+        try {
+            Slot slot = index.get(key);
+            if (slot != null) {
+                remove(key, slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //drops all values but keeps the reserved segments for reuse
+    public void clear() {
+        lock.lock();
+        try {
+            index.clear();
+            for (int i = 0; i < sizeClasses; i++) {
+                freeBlocks[i].clear();
+                lruBySizeClass[i].clear();
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                freeBlocks[sizeClasses - 1].add((long) i << 32);
+            }
+            usedBytes = 0;
+            payloadBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Usage usage() {
+        lock.lock();
+        try {
+            return new Usage(index.size(), payloadBytes, usedBytes, (long) segments.size() * segmentSize, capacity, evictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Object key, Slot slot) {
+        index.remove(key);
+        lruBySizeClass[slot.sizeClass].remove(key);
+        free(((long) slot.segment << 32) | slot.offset, slot.sizeClass);
+        usedBytes -= blockSize(slot.sizeClass);
+        payloadBytes -= slot.length;
+    }
+
+    //returns segment << 32 | offset of a free block, or -1 if nothing can be freed to make room
+    private long allocate(int sizeClass) {
+        while (true) {
+            long block = split(sizeClass);
+            if (block >= 0) {
+                return block;
+            }
+            if ((long) (segments.size() + 1) * segmentSize <= capacity) {
+                segments.add(ByteBuffer.allocateDirect(segmentSize));
+                freeBlocks[sizeClasses - 1].add((long) (segments.size() - 1) << 32);
+            } else if (!evict(sizeClass)) {
+                return -1;
+            }
+        }
+    }
+
+    //takes the smallest free block of at least the needed size and returns its upper halves to the free lists
+    private long split(int sizeClass) {
+        for (int larger = sizeClass; larger < sizeClasses; larger++) {
+            Iterator<Long> free = freeBlocks[larger].iterator();
+            if (free.hasNext()) {
+                long block = free.next();
+                free.remove();
+                while (larger > sizeClass) {
+                    larger--;
+                    freeBlocks[larger].add(block + blockSize(larger));
+                }
+                return block;
+            }
+        }
+        return -1;
+    }
+
+    //merges the block with its buddy for as long as the buddy is free too
+    private void free(long block, int sizeClass) {
+        while (sizeClass < sizeClasses - 1) {
+            //blocks are aligned to their size, so the buddy differs in the one offset bit of that size
+            long buddy = block ^ blockSize(sizeClass);
+            if (!freeBlocks[sizeClass].remove(buddy)) {
+                break;
+            }
+            block = Math.min(block, buddy);
+            sizeClass++;
+        }
+        freeBlocks[sizeClass].add(block);
+    }
+
+    //evicts the least recently used value of the size class, else of a larger one, else of a smaller one
+    private boolean evict(int sizeClass) {
+        for (int i = 0; i < sizeClasses; i++) {
+            int victimClass = sizeClass + i < sizeClasses ? sizeClass + i : sizeClasses - 1 - i;
+            Iterator<Map.Entry<Object, Slot>> eldest = lruBySizeClass[victimClass].entrySet().iterator();
+            if (eldest.hasNext()) {
+                Map.Entry<Object, Slot> entry = eldest.next();
+                remove(entry.getKey(), entry.getValue());
+                evictions++;
+                evictionListener.accept(entry.getKey());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int sizeClass(int length) {
+        int blockShift = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+        return Math.max(0, blockShift - MIN_BLOCK_SHIFT);
+    }
+
+    private static int blockSize(int sizeClass) {
+        return 1 << (sizeClass + MIN_BLOCK_SHIFT);
+    }
+
+    private static class Slot {
+        final int segment;
+        final int offset;
+        final int length;
+        final int sizeClass;
+        long expiresAt;
+        int hits;
+
+        Slot(int segment, int offset, int length, int sizeClass) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    public static class Read {
+        private final byte[] bytes;
+        private final int hits;
+        private final long expiresAt;
+
+        Read(byte[] bytes, int hits, long expiresAt) {
+            this.bytes = bytes;
+            this.hits = hits;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public int getHits() {
+            return hits;
+        }
+
+        //System.nanoTime() at which the value expires, 0 when it does not
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    public static class Usage {
+        private final int entries;
+        private final long payloadBytes;
+        private final long usedBytes;
+        private final long reservedBytes;
+        private final long capacityBytes;
+        private final long evictions;
+
+        Usage(int entries, long payloadBytes, long usedBytes, long reservedBytes, long capacityBytes, long evictions) {
+            this.entries = entries;
+            this.payloadBytes = payloadBytes;
+            this.usedBytes = usedBytes;
+            this.reservedBytes = reservedBytes;
+            this.capacityBytes = capacityBytes;
+            this.evictions = evictions;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        //bytes of the encoded values
+        public long getPayloadBytes() {
+            return payloadBytes;
+        }
+
+        //bytes of the blocks holding the values, payload rounded up to the block sizes
+        public long getUsedBytes() {
+            return usedBytes;
+        }
+
+        //direct memory allocated so far
+        public long getReservedBytes() {
+            return reservedBytes;
+        }
+
+        public long getCapacityBytes() {
+            return capacityBytes;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded response bodies, keyed by request path and query, that are dropped when an object cache entry
+ * they were built from changes.
+ * <p>
+ * While a response is built, a {@link Recording} on the request thread collects every object cache key the
+ * request reads, which the response then depends on. A write, eviction, expiry or refresh of such a key removes
+ * the responses built from it, whichever thread makes it. A response whose dependencies change while it is being
+ * built is not stored, except for the request's own writes: those fill the object cache on a miss with the value
+ * the response is built from.
+ */
+public class ResponseCache implements CacheListener {
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, CachedResponse> responses;
+
+    private final ConcurrentHashMap<Dependency, Set<CachedResponse>> dependents = new ConcurrentHashMap<>();
+
+    private final Set<Recording> recordings = ConcurrentHashMap.newKeySet();
+
+    private final ThreadLocal<Recording> current = new ThreadLocal<>();
+
+    private final long gzipMinSize;
+
+    public ResponseCache(CacheProperties.Response properties) {
+        this.gzipMinSize = properties.getGzipMinSize().toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .removalListener(this::unindex)
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public Recording startRecording() {
+        Recording recording = new Recording();
+        recordings.add(recording);
+        current.set(recording);
+        return recording;
+    }
+
+    public void stopRecording(Recording recording) {
+        current.remove();
+        recordings.remove(recording);
+    }
+
+    //stores the body built while recording, unless something it was built from has changed meanwhile
+    public CachedResponse put(String key, String contentType, byte[] body, Recording recording) {
+        CachedResponse response = new CachedResponse(key, contentType, body, gzip(body), Set.copyOf(recording.dependencies));
+        for (Dependency dependency : response.dependencies) {
+            dependents.compute(dependency, (d, dependent) -> {
+                Set<CachedResponse> set = dependent != null ? dependent : ConcurrentHashMap.newKeySet();
+                set.add(response);
+                return set;
+            });
+        }
+        responses.put(key, response);
+        //an invalidation marks the recording before it looks up the dependents, one of both catches this response
+        if (recording.stale) {
+            responses.asMap().remove(key, response);
+        }
+        return response;
+    }
+
+    public void clear() {
+        responses.invalidateAll();
+    }
+
+    public long size() {
+        return responses.estimatedSize();
+    }
+
+    @Override
+    public void read(String cacheName, Object key) {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.dependencies.add(new Dependency(cacheName, key));
+        }
+    }
+
+    @Override
+    public void changed(String cacheName, Object key) {
+        Recording own = current.get();
+        Dependency dependency = new Dependency(cacheName, key);
+        for (Recording recording : recordings) {
+            if (recording != own && recording.dependencies.contains(dependency)) {
+                recording.stale = true;
+            }
+        }
+        invalidate(dependents.remove(dependency));
+    }
+
+    @Override
+    public void cleared(String cacheName) {
+        for (Recording recording : recordings) {
+            if (recording.dependencies.stream().anyMatch(dependency -> dependency.cacheName.equals(cacheName))) {
+                recording.stale = true;
+            }
+        }
+        for (Dependency dependency : dependents.keySet()) {
+            if (dependency.cacheName.equals(cacheName)) {
+                invalidate(dependents.remove(dependency));
+            }
+        }
+    }
+
+    private void invalidate(Set<CachedResponse> dependent) {
+        if (dependent == null) {
+            return;
+        }
+        for (CachedResponse response : dependent) {
+            responses.asMap().remove(response.key, response);
+        }
+    }
+
+    private void unindex(String key, CachedResponse response, RemovalCause cause) {
+        if (response == null) {
+            return;
+        }
+        for (Dependency dependency : response.dependencies) {
+            dependents.computeIfPresent(dependency, (d, dependent) -> {
+                dependent.remove(response);
+                return dependent.isEmpty() ? null : dependent;
+            });
+        }
+    }
+
+    private byte[] gzip(byte[] body) {
+        if (body.length < gzipMinSize) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.size() < body.length ? bytes.toByteArray() : null;
+    }
+
+    public static class CachedResponse {
+
+        private final String key;
+        private final String contentType;
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String etag;
+        private final Set<Dependency> dependencies;
+
+        CachedResponse(String key, String contentType, byte[] body, byte[] gzipBody, Set<Dependency> dependencies) {
+            this.key = key;
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            this.dependencies = dependencies;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        //null when the body is too small to compress
+        public byte[] getGzipBody() {
+            return gzipBody;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        int weight() {
+            return key.length() * 2 + body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+    }
+
+    public static class Recording {
+
+        private final Set<Dependency> dependencies = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean stale;
+    }
+
+    private static final class Dependency {
+
+        final String cacheName;
+        final Object key;
+
+        Dependency(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Dependency)) {
+                return false;
+            }
+            Dependency that = (Dependency) other;
+            return cacheName.equals(that.cacheName) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cacheName, key);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache decorator that loads each missing key only once, however many callers ask for it at the same time.
+ * <p>
+ * The first caller of {@link #get(Object, Callable)} for a missing key runs the loader, every other caller
+ * waits for the same future and gets the same value or exception. With a refresh-after-write duration set,
+ * a hit on an entry older than that duration reloads it in the background while callers keep getting the
+ * old value, so a frequently read entry is replaced before it expires instead of being missed.
+ * <p>
+ * A value loaded from the backend must not overwrite a write that happened while it was loading. Every write
+ * and eviction bumps a version for the key first, and a loaded value is only kept if the version is still the
+ * one {@link #lease(Object) leased} before the load started. Versions are striped, so a write to another key of
+ * the same stripe may drop a loaded value too, which costs a miss but never serves a stale value.
+ */
+public class SingleFlightCache extends CacheDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final long refreshAfterNanos;
+
+    private final Executor refreshExecutor;
+
+    //write time and loader of the cached keys, only kept when refresh-ahead is enabled
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Refresh> refreshes;
+
+    public SingleFlightCache(Cache delegate) {
+        this(delegate, null, null, Duration.ZERO, 0);
+    }
+
+    public SingleFlightCache(Cache delegate, Duration refreshAfterWrite, Executor refreshExecutor, Duration expireAfterWrite, long maximumEntries) {
+        super(delegate);
+        this.refreshAfterNanos = refreshAfterWrite == null ? 0 : refreshAfterWrite.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        if (refreshAfterNanos > 0) {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumEntries);
+            if (!expireAfterWrite.isZero()) {
+                builder.expireAfterWrite(expireAfterWrite);
+            }
+            this.refreshes = builder.build();
+        } else {
+            this.refreshes = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            refreshIfDue(key, valueLoader);
+            return (T) cached.get();
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return (T) await(key, inFlight, valueLoader);
+        }
+        try {
+            long lease = lease(key);
+            //another caller may have finished loading between the miss and taking over the key
+            cached = delegate.get(key);
+            Object value = cached != null ? cached.get() : valueLoader.call();
+            if (cached == null && fill(key, value, lease)) {
+                recordWrite(key, valueLoader);
+            }
+            load.complete(value);
+            return (T) value;
+        } catch (Throwable ex) {
+            load.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    //to be taken before reading a missing value from the backend, see fill(Object, Object, long)
+    public long lease(Object key) {
+        return versions.get(stripe(key));
+    }
+
+    //caches a value read from the backend, unless the key was written or evicted since the lease was taken
+    public boolean fill(Object key, Object value, long lease) {
+        delegate.put(key, value);
+        if (versions.get(stripe(key)) != lease) {
+            delegate.evict(key);
+            return false;
+        }
+        return true;
+    }
+
+    //the version is bumped before the write, so a fill that started earlier either sees it or is overwritten
+    @Override
+    public void put(Object key, Object value) {
+        versions.incrementAndGet(stripe(key));
+        if (refreshes != null) {
+            //keep the loader of a key that is overwritten, it still knows how to reload it
+            refreshes.asMap().computeIfPresent(key, (k, refresh) -> new Refresh(System.nanoTime(), refresh.loader));
+        }
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        versions.incrementAndGet(stripe(key));
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        versions.incrementAndGet(stripe(key));
+        if (refreshes != null) {
+            refreshes.invalidate(key);
+        }
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        versions.incrementAndGet(stripe(key));
+        if (refreshes != null) {
+            refreshes.invalidate(key);
+        }
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        invalidateAll();
+        return delegate.invalidate();
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        if (refreshes != null) {
+            refreshes.invalidateAll();
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private Object await(Object key, CompletableFuture<Object> load, Callable<?> valueLoader) {
+        try {
+            return load.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } catch (ExecutionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    private void recordWrite(Object key, Callable<?> valueLoader) {
+        if (refreshes != null) {
+            refreshes.put(key, new Refresh(System.nanoTime(), valueLoader));
+        }
+    }
+
+    private void refreshIfDue(Object key, Callable<?> valueLoader) {
+        if (refreshes == null) {
+            return;
+        }
+        Refresh refresh = refreshes.getIfPresent(key);
+        if (refresh == null) {
+            //written by someone who did not pass a loader, start counting from now
+            recordWrite(key, valueLoader);
+            return;
+        }
+        if (System.nanoTime() - refresh.writeNanos < refreshAfterNanos || !refresh.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> reload(key, refresh));
+        } catch (RejectedExecutionException ex) {
+            //all refresh threads are busy, a later hit tries again
+            refresh.refreshing.set(false);
+        }
+    }
+
+    private void reload(Object key, Refresh refresh) {
+        try {
+            long lease = lease(key);
+            Object value = refresh.loader.call();
+            //skip the result if the key was evicted or rewritten while it was reloading
+            if (refreshes.asMap().replace(key, refresh, new Refresh(System.nanoTime(), refresh.loader))) {
+                fill(key, value, lease);
+            }
+        } catch (Exception ex) {
+            log.warn("Refreshing key {} of cache {} failed, the current value is kept", key, getName(), ex);
+            refresh.refreshing.set(false);
+        }
+    }
+
+    private static class Refresh {
+        final long writeNanos;
+        final Callable<?> loader;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Refresh(long writeNanos, Callable<?> loader) {
+            this.writeNanos = writeNanos;
+            this.loader = loader;
+        }
+    }
+}
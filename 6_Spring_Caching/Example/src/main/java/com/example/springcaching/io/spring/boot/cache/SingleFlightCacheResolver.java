@@ -0,0 +1,84 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Resolves the caches of a {@code @Cacheable} call so that a miss on a {@link SingleFlightCache} is loaded
+ * through {@link SingleFlightCache#get(Object, Callable)} with the annotated method as the loader.
+ * <p>
+ * This gives plain {@code @Cacheable} methods the behaviour of {@code @Cacheable(sync = true)} without
+ * changing the annotation. Like with {@code sync}, the loaded value is cached without evaluating {@code unless}.
+ */
+public class SingleFlightCacheResolver extends SimpleCacheResolver {
+
+    public SingleFlightCacheResolver(CacheManager cacheManager) {
+        super(cacheManager);
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> caches = super.resolveCaches(context);
+        if (!(context.getOperation() instanceof CacheableOperation)) {
+            return caches;
+        }
+        List<Cache> resolved = new ArrayList<>(caches.size());
+        for (Cache cache : caches) {
+            resolved.add(CacheDecorator.unwrap(cache, SingleFlightCache.class) != null ? new LoadingView(cache, loader(context)) : cache);
+        }
+        return resolved;
+    }
+
+    //calls the annotated method on the target itself, so the call does not go through the cache again
+    private static Callable<Object> loader(CacheOperationInvocationContext<?> context) {
+        Object target = context.getTarget();
+        Object[] args = context.getArgs();
+        return () -> {
+            try {
+                return AopUtils.invokeJoinpointUsingReflection(target, context.getMethod(), args);
+            } catch (Exception | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UndeclaredThrowableException(ex);
+            }
+        };
+    }
+
+    //the cache as seen by one invocation: a lookup never misses, it loads the value through the cache
+    private static class LoadingView extends CacheDecorator {
+
+        private final Callable<Object> loader;
+
+        LoadingView(Cache cache, Callable<Object> loader) {
+            super(cache);
+            this.loader = loader;
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            try {
+                return new SimpleValueWrapper(delegate.get(key, loader));
+            } catch (ValueRetrievalException ex) {
+                //rethrow what the method threw, as the caller would have seen it without the cache
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+}
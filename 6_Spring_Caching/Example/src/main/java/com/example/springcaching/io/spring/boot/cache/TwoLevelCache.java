@@ -0,0 +1,224 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Cache with a small heap level in front of an {@link OffHeapStore}.
+ * <p>
+ * Entries evicted from the heap level for size are encoded with {@link CustomerCodec} and moved
+ * off-heap; values the codec cannot encode are dropped as before. An off-heap entry that is read
+ * {@code promoteAfterHits} times is decoded and moved back to the heap level.
+ * <p>
+ * Demotion runs in Caffeine's eviction listener, atomically with the eviction, and writes and
+ * promotions run in a compute of the key, so a put or evict can never be overtaken by a demotion
+ * of the value it replaced. An entry keeps its write deadline across both levels: it is demoted
+ * with the rest of its expire-after-write time and a promoted entry still expires when it would
+ * have off-heap. An entry can also be put with less than a full time to live, to restore it from a
+ * snapshot.
+ * <p>
+ * Entries that leave both levels without a put or evict, because they expired, were evicted
+ * off-heap or could not be demoted, are passed to an eviction listener.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> heap;
+
+    private final OffHeapStore offHeap;
+
+    private final int promoteAfterHits;
+
+    private final long offHeapTtlNanos;
+
+    //whether the heap level expires entries after write, which off-heap and restored entries then have to keep to
+    private final boolean expiresAfterWrite;
+
+    private final Consumer<Object> evictionListener;
+
+    //write deadlines of promoted and restored entries, which the heap level would otherwise give a full expire-after-write time
+    private final ConcurrentHashMap<Object, Long> deadlines = new ConcurrentHashMap<>();
+
+    public TwoLevelCache(String name, Caffeine<Object, Object> heapBuilder, OffHeapStore offHeap, int promoteAfterHits, long offHeapTtlNanos) {
+        this(name, heapBuilder, offHeap, promoteAfterHits, offHeapTtlNanos, key -> {
+        });
+    }
+
+    //the off-heap store should pass its evictions to the same listener, heap level expiry is left to a removal listener on the builder
+    public TwoLevelCache(String name, Caffeine<Object, Object> heapBuilder, OffHeapStore offHeap, int promoteAfterHits, long offHeapTtlNanos,
+                         Consumer<Object> evictionListener) {
+        super(true);
+        this.evictionListener = evictionListener;
+        this.name = name;
+        this.offHeap = offHeap;
+        this.promoteAfterHits = promoteAfterHits;
+        this.offHeapTtlNanos = offHeapTtlNanos;
+        this.heap = heapBuilder.evictionListener(this::demote).build();
+        this.expiresAfterWrite = heap.policy().expireAfterWrite().isPresent() || heap.policy().expireVariably().isPresent();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+        return heap;
+    }
+
+    public OffHeapStore getOffHeapStore() {
+        return offHeap;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = heap.getIfPresent(key);
+        if (value != null) {
+            if (!deadlines.isEmpty() && deadlines.containsKey(key)) {
+                return expireAtDeadline(key);
+            }
+            return value;
+        }
+        OffHeapStore.Read read = offHeap.get(key);
+        if (read == null) {
+            return null;
+        }
+        if (read.getHits() >= promoteAfterHits) {
+            Object promoted = promote(key);
+            if (promoted != null) {
+                return promoted;
+            }
+        }
+        return CustomerCodec.decode(read.getBytes());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return (T) fromStoreValue(heap.get(key, k -> {
+            try {
+                return toStoreValue(valueLoader.call());
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        heap.asMap().compute(key, (k, current) -> {
+            offHeap.remove(k);
+            deadlines.remove(k);
+            return storeValue;
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        heap.asMap().compute(key, (k, current) -> {
+            offHeap.remove(k);
+            deadlines.remove(k);
+            return null;
+        });
+    }
+
+    //puts an entry that has only ttlNanos of its time to live left, as when it is restored from a snapshot
+    public void put(Object key, Object value, long ttlNanos) {
+        Object storeValue = toStoreValue(value);
+        long deadline = System.nanoTime() + ttlNanos;
+        heap.asMap().compute(key, (k, current) -> {
+            offHeap.remove(k);
+            if (expiresAfterWrite) {
+                deadlines.put(k, deadline);
+            }
+            return storeValue;
+        });
+    }
+
+    //nanoseconds a heap entry has left until it expires after write, -1 if entries do not expire after write, 0 if it is
+    //not on the heap level
+    public long remainingTtlNanos(Object key) {
+        long remaining = WriteExpiry.remainingNanos(heap, key);
+        Long deadline = deadlines.get(key);
+        if (deadline != null && remaining > 0) {
+            return Math.max(0, Math.min(remaining, deadline - System.nanoTime()));
+        }
+        return remaining;
+    }
+
+    @Override
+    public void clear() {
+        heap.invalidateAll();
+        deadlines.clear();
+        offHeap.clear();
+    }
+
+    //moves the entry to the heap level, returns null if it was put, evicted or expired meanwhile
+    private Object promote(Object key) {
+        Object[] promoted = new Object[1];
+        heap.asMap().compute(key, (k, current) -> {
+            if (current != null) {
+                return current;
+            }
+            OffHeapStore.Read read = offHeap.take(k);
+            if (read == null) {
+                return null;
+            }
+            if (read.getExpiresAt() != 0 && expiresAfterWrite) {
+                deadlines.put(k, read.getExpiresAt());
+            }
+            promoted[0] = CustomerCodec.decode(read.getBytes());
+            return promoted[0];
+        });
+        return promoted[0];
+    }
+
+    //drops a promoted or restored entry that is past its deadline, returns the value if it is not
+    private Object expireAtDeadline(Object key) {
+        Object[] value = new Object[1];
+        heap.asMap().computeIfPresent(key, (k, current) -> {
+            Long deadline = deadlines.get(k);
+            if (deadline != null && System.nanoTime() - deadline > 0) {
+                deadlines.remove(k);
+                evictionListener.accept(k);
+                return null;
+            }
+            value[0] = current;
+            return current;
+        });
+        return value[0];
+    }
+
+    //moves entries the heap level evicted for size off-heap, with the rest of their time to live; runs inside the
+    //eviction, so the key cannot be written concurrently
+    private void demote(Object key, Object value, RemovalCause cause) {
+        if (key == null) {
+            return;
+        }
+        long ttlNanos = cause == RemovalCause.SIZE && expiresAfterWrite ? remainingTtlNanos(key) : offHeapTtlNanos;
+        deadlines.remove(key);
+        if (cause != RemovalCause.SIZE) {
+            return;
+        }
+        if (expiresAfterWrite && ttlNanos <= 0) {
+            evictionListener.accept(key);
+            return;
+        }
+        byte[] bytes = CustomerCodec.encode(value);
+        if (bytes == null || !offHeap.put(key, bytes, ttlNanos)) {
+            evictionListener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+//expires entries a fixed time after they were written, like expireAfterWrite, but a single entry can be put with less time left
+public class WriteExpiry implements Expiry<Object, Object> {
+
+    private final long expireAfterWriteNanos;
+
+    public WriteExpiry(Duration expireAfterWrite) {
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return expireAfterWriteNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterWriteNanos;
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    //nanoseconds the entry has left until it expires after write, -1 if the cache does not expire entries after write, 0 if it is gone
+    @SuppressWarnings("unchecked")
+    public static long remainingNanos(Cache<?, ?> cache, Object key) {
+        Policy<Object, Object> policy = ((Cache<Object, Object>) cache).policy();
+        Optional<Policy.VarExpiration<Object, Object>> expireVariably = policy.expireVariably();
+        if (expireVariably.isPresent()) {
+            return Math.max(0, expireVariably.get().getExpiresAfter(key, TimeUnit.NANOSECONDS).orElse(0));
+        }
+        Optional<Policy.Expiration<Object, Object>> expireAfterWrite = policy.expireAfterWrite();
+        if (expireAfterWrite.isPresent()) {
+            OptionalLong age = expireAfterWrite.get().ageOf(key, TimeUnit.NANOSECONDS);
+            return age.isPresent() ? Math.max(0, expireAfterWrite.get().getExpiresAfter(TimeUnit.NANOSECONDS) - age.getAsLong()) : 0;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springcaching.io.spring.boot.config;
+
+import com.example.springcaching.io.spring.boot.cache.BoundedCacheManager;
+import com.example.springcaching.io.spring.boot.cache.CacheListener;
+import com.example.springcaching.io.spring.boot.cache.CacheSnapshotter;
+import com.example.springcaching.io.spring.boot.cache.ListenedCache;
+import com.example.springcaching.io.spring.boot.cache.ResponseCache;
+import com.example.springcaching.io.spring.boot.cache.ResponseCacheFilter;
+import com.example.springcaching.io.spring.boot.cache.SingleFlightCacheResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig extends CachingConfigurerSupport {
+
+    @Autowired
+    private ObjectProvider<CacheManager> cacheManager;
+
+    //routes @Cacheable misses through the single-flight loader of the cache
+    @Override
+    public CacheResolver cacheResolver() {
+        return new SingleFlightCacheResolver(cacheManager.getObject());
+    }
+
+    //caches bounded by the limits configured under app.cache.*
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache", name = "type", havingValue = "bounded", matchIfMissing = true)
+    public CacheManager cacheManager(CacheProperties properties, MeterRegistry meterRegistry, ObjectProvider<CacheListener> cacheListener) {
+        BoundedCacheManager cacheManager = new BoundedCacheManager(properties, meterRegistry);
+        cacheManager.setCacheListener(cacheListener.getIfAvailable());
+        return cacheManager;
+    }
+
+    //the unbounded cache manager that @EnableCaching uses when no provider is configured, its entries never expire,
+    //so a response cache is only kept in step by the listener
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache", name = "type", havingValue = "simple")
+    public CacheManager simpleCacheManager(ObjectProvider<CacheListener> cacheListener) {
+        CacheListener listener = cacheListener.getIfAvailable();
+        return new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                Cache cache = super.createConcurrentMapCache(name);
+                return listener != null ? new ListenedCache(cache, listener) : cache;
+            }
+        };
+    }
+
+    //keeps the hot entries of the configured caches across restarts
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.snapshot", name = "enabled", havingValue = "true")
+    public CacheSnapshotter cacheSnapshotter(CacheManager cacheManager, CacheProperties properties) {
+        return new CacheSnapshotter(cacheManager, properties.getSnapshot());
+    }
+
+    //encoded bodies of the hot GET endpoints, dropped together with the objects they were built from
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.response", name = "enabled", havingValue = "true")
+    public ResponseCache responseCache(CacheProperties properties) {
+        return new ResponseCache(properties.getResponse());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.response", name = "enabled", havingValue = "true")
+    public ResponseCacheFilter responseCacheFilter(ResponseCache responseCache, CacheProperties properties) {
+        return new ResponseCacheFilter(responseCache, properties.getResponse().getPaths());
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.springcaching.io.spring.boot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache limits bound from {@code app.cache.*} in application.properties.
+ * <p>
+ * {@code app.cache.defaults.*} applies to every cache that has no entry of its own
+ * under {@code app.cache.caches.<cache name>.*}.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    //"bounded" uses BoundedCacheManager, "simple" falls back to Spring's ConcurrentMapCacheManager
+    private String type = "bounded";
+
+    //threads that reload entries for refresh-after-write
+    private int refreshThreads = 4;
+
+    private Spec defaults = new Spec();
+
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    private Snapshot snapshot = new Snapshot();
+
+    private Response response = new Response();
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    public Spec getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Spec defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Spec> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Spec> caches) {
+        this.caches = caches;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public void setResponse(Response response) {
+        this.response = response;
+    }
+
+    //returns the spec of the given cache, or the defaults when the cache is not configured
+    public Spec getSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    public static class Spec {
+
+        //maximum number of entries, cannot be combined with maximumWeight
+        private Long maximumSize;
+
+        //maximum total weight of the entries, a collection weighs as much as its number of elements
+        private Long maximumWeight;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        //size of the off-heap second level behind the heap cache, no second level when not set
+        private DataSize offHeapCapacity;
+
+        //number of off-heap reads after which an entry is moved back to the heap cache
+        private int promoteAfterHits = 2;
+
+        //load a missing key once and let concurrent callers wait for that load
+        private boolean singleFlight = true;
+
+        //age after which a read entry is reloaded in the background, must be shorter than expireAfterWrite
+        private Duration refreshAfterWrite;
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public DataSize getOffHeapCapacity() {
+            return offHeapCapacity;
+        }
+
+        public void setOffHeapCapacity(DataSize offHeapCapacity) {
+            this.offHeapCapacity = offHeapCapacity;
+        }
+
+        public int getPromoteAfterHits() {
+            return promoteAfterHits;
+        }
+
+        public void setPromoteAfterHits(int promoteAfterHits) {
+            this.promoteAfterHits = promoteAfterHits;
+        }
+
+        public boolean isSingleFlight() {
+            return singleFlight;
+        }
+
+        public void setSingleFlight(boolean singleFlight) {
+            this.singleFlight = singleFlight;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+    }
+
+    public static class Snapshot {
+
+        //write the hot entries on shutdown and load them on startup
+        private boolean enabled;
+
+        private Path file = Paths.get("cache-snapshot.bin");
+
+        private List<String> caches = new ArrayList<>();
+
+        //hottest entries written per cache, and the most entries loaded per cache
+        private int maxEntries = 10_000;
+
+        //a snapshot older than this is ignored, its entries would be too stale to serve; entries past their own
+        //expire-after-write time are dropped in any case
+        private Duration maxAge = Duration.ofMinutes(10);
+
+        private int loadThreads = 4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void setFile(Path file) {
+            this.file = file;
+        }
+
+        public List<String> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(List<String> caches) {
+            this.caches = caches;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getLoadThreads() {
+            return loadThreads;
+        }
+
+        public void setLoadThreads(int loadThreads) {
+            this.loadThreads = loadThreads;
+        }
+    }
+
+    public static class Response {
+
+        //cache the encoded bodies of GET responses for the paths below
+        private boolean enabled;
+
+        //ant style patterns, e.g. /customerInfo/**
+        private List<String> paths = new ArrayList<>();
+
+        //total size of the cached bodies, plain and gzip together
+        private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+        //responses are also dropped when an object they were built from changes
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        //smaller bodies are not worth compressing
+        private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public DataSize getGzipMinSize() {
+            return gzipMinSize;
+        }
+
+        public void setGzipMinSize(DataSize gzipMinSize) {
+            this.gzipMinSize = gzipMinSize;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.springcaching.io.spring.boot.controler;
+
+import com.example.springcaching.io.spring.boot.cache.CacheDecorator;
+import com.example.springcaching.io.spring.boot.cache.CustomerCodec;
+import com.example.springcaching.io.spring.boot.cache.InstrumentedCache;
+import com.example.springcaching.io.spring.boot.cache.OffHeapStore;
+import com.example.springcaching.io.spring.boot.cache.TwoLevelCache;
+import com.example.springcaching.io.spring.boot.model.CacheMemoryUsage;
+import com.example.springcaching.io.spring.boot.model.CacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class CacheController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    //hit, miss, eviction and load time statistics of every cache, the same numbers are published to /actuator/metrics
+    @GetMapping("/cache/stats")
+    public List<CacheStatistics> statistics() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            InstrumentedCache cache = CacheDecorator.unwrap(cacheManager.getCache(cacheName), InstrumentedCache.class);
+            if (cache != null) {
+                statistics.add(cache.statistics());
+            }
+        }
+        return statistics;
+    }
+
+    //reports how much memory the heap and the off-heap level of every cache use
+    @GetMapping("/cache/memory")
+    public List<CacheMemoryUsage> memoryUsage() {
+        List<CacheMemoryUsage> usages = new ArrayList<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                usages.add(memoryUsage(cache));
+            }
+        }
+        return usages;
+    }
+
+    private CacheMemoryUsage memoryUsage(Cache cache) {
+        Map<?, ?> heapEntries = heapEntries(cache.getNativeCache());
+        long heapBytes = 0;
+        for (Object value : heapEntries.values()) {
+            heapBytes += CustomerCodec.estimateHeapBytes(value);
+        }
+        CacheMemoryUsage usage = new CacheMemoryUsage(cache.getName(), heapEntries.size(), heapBytes);
+        TwoLevelCache twoLevelCache = CacheDecorator.unwrap(cache, TwoLevelCache.class);
+        if (twoLevelCache != null) {
+            OffHeapStore.Usage offHeap = twoLevelCache.getOffHeapStore().usage();
+            usage.setOffHeapEntries(offHeap.getEntries());
+            usage.setOffHeapPayloadBytes(offHeap.getPayloadBytes());
+            usage.setOffHeapUsedBytes(offHeap.getUsedBytes());
+            usage.setOffHeapReservedBytes(offHeap.getReservedBytes());
+            usage.setOffHeapCapacityBytes(offHeap.getCapacityBytes());
+        }
+        return usage;
+    }
+
+    private Map<?, ?> heapEntries(Object nativeCache) {
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap();
+        }
+        if (nativeCache instanceof Map) {
+            return (Map<?, ?>) nativeCache;
+        }
+        return Map.of();
+    }
+}
@@ -1,26 +1,79 @@
 package com.example.springcaching.io.spring.boot.controler;
 
 import com.example.springcaching.io.spring.boot.model.Customer;
-import org.springframework.cache.annotation.Cacheable;
+import com.example.springcaching.io.spring.boot.service.CustomerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Arrays;
 import java.util.List;
 
 @RestController
 public class CustomerController {
 
+    private static final int MAX_IDS = 100;
+
+    @Autowired
+    CustomerService customerService;
+
     @RequestMapping("/customerInfo")
-    @Cacheable(value = "customerInfo")
     public List<Customer> customerInformation() {
-        System.out.println("Customer information from cache");
+        return customerService.getAllCustomers();
+    }
+
+    @GetMapping("/customerInfo/{accountNo}")
+    public Customer customer(@PathVariable int accountNo) {
+        Customer customer = customerService.getCustomer(accountNo);
+        if (customer == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No customer with account " + accountNo);
+        }
+        return customer;
+    }
 
-        List<Customer> detail = Arrays.asList(
-                new Customer(5126890, "Alex Doe", "Current A/c", 450000.00),
-                new Customer(7620015, "Andrew McArtur", "Saving A/c", 210089.00)
-        );
+    // e.g. /customerInfo?ids=5126890,7620015, accounts that do not exist are left out
+    @GetMapping(value = "/customerInfo", params = "ids")
+    public List<Customer> customers(@RequestParam List<Integer> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_IDS + " ids per request");
+        }
+        return customerService.getCustomers(ids);
+    }
+
+    @PostMapping("/customerInfo")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Customer createCustomer(@RequestBody Customer customer) {
+        Customer created = customerService.createCustomer(customer);
+        if (created == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Account " + customer.getAccountNo() + " already exists");
+        }
+        return created;
+    }
+
+    @PutMapping("/customerInfo/{accountNo}")
+    public Customer updateCustomer(@PathVariable int accountNo, @RequestBody Customer customer) {
+        customer.setAccountNo(accountNo);
+        Customer updated = customerService.updateCustomer(customer);
+        if (updated == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No customer with account " + accountNo);
+        }
+        return updated;
+    }
 
-        return detail;
+    @DeleteMapping("/customerInfo/{accountNo}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteCustomer(@PathVariable int accountNo) {
+        if (!customerService.deleteCustomer(accountNo)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No customer with account " + accountNo);
+        }
     }
 }
@@ -0,0 +1,93 @@
+package com.example.springcaching.io.spring.boot.model;
+
+public class CacheMemoryUsage {
+    private String cacheName;
+
+    private long heapEntries;
+
+    //estimated from the cached customers, the heap level does not track its own size in bytes
+    private long heapBytes;
+
+    private long offHeapEntries;
+
+    private long offHeapPayloadBytes;
+
+    private long offHeapUsedBytes;
+
+    private long offHeapReservedBytes;
+
+    private long offHeapCapacityBytes;
+
+    public CacheMemoryUsage() {
+    }
+
+    public CacheMemoryUsage(String cacheName, long heapEntries, long heapBytes) {
+        this.cacheName = cacheName;
+        this.heapEntries = heapEntries;
+        this.heapBytes = heapBytes;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public long getHeapEntries() {
+        return heapEntries;
+    }
+
+    public void setHeapEntries(long heapEntries) {
+        this.heapEntries = heapEntries;
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public void setHeapBytes(long heapBytes) {
+        this.heapBytes = heapBytes;
+    }
+
+    public long getOffHeapEntries() {
+        return offHeapEntries;
+    }
+
+    public void setOffHeapEntries(long offHeapEntries) {
+        this.offHeapEntries = offHeapEntries;
+    }
+
+    public long getOffHeapPayloadBytes() {
+        return offHeapPayloadBytes;
+    }
+
+    public void setOffHeapPayloadBytes(long offHeapPayloadBytes) {
+        this.offHeapPayloadBytes = offHeapPayloadBytes;
+    }
+
+    public long getOffHeapUsedBytes() {
+        return offHeapUsedBytes;
+    }
+
+    public void setOffHeapUsedBytes(long offHeapUsedBytes) {
+        this.offHeapUsedBytes = offHeapUsedBytes;
+    }
+
+    public long getOffHeapReservedBytes() {
+        return offHeapReservedBytes;
+    }
+
+    public void setOffHeapReservedBytes(long offHeapReservedBytes) {
+        this.offHeapReservedBytes = offHeapReservedBytes;
+    }
+
+    public long getOffHeapCapacityBytes() {
+        return offHeapCapacityBytes;
+    }
+
+    public void setOffHeapCapacityBytes(long offHeapCapacityBytes) {
+        this.offHeapCapacityBytes = offHeapCapacityBytes;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.springcaching.io.spring.boot.model;
+
+import java.util.Map;
+
+public class CacheStatistics {
+    private String cacheName;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRatio;
+
+    private long puts;
+
+    private long evictions;
+
+    private long offHeapEvictions;
+
+    private long size;
+
+    private long loads;
+
+    private long loadFailures;
+
+    private double loadTimeMeanMillis;
+
+    private double loadTimeMaxMillis;
+
+    private Map<String, Double> loadTimePercentilesMillis;
+
+    //cumulative number of loads per upper bound in milliseconds
+    private Map<String, Long> loadTimeHistogramMillis;
+
+    public CacheStatistics() {
+    }
+
+    public CacheStatistics(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getOffHeapEvictions() {
+        return offHeapEvictions;
+    }
+
+    public void setOffHeapEvictions(long offHeapEvictions) {
+        this.offHeapEvictions = offHeapEvictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public void setLoadFailures(long loadFailures) {
+        this.loadFailures = loadFailures;
+    }
+
+    public double getLoadTimeMeanMillis() {
+        return loadTimeMeanMillis;
+    }
+
+    public void setLoadTimeMeanMillis(double loadTimeMeanMillis) {
+        this.loadTimeMeanMillis = loadTimeMeanMillis;
+    }
+
+    public double getLoadTimeMaxMillis() {
+        return loadTimeMaxMillis;
+    }
+
+    public void setLoadTimeMaxMillis(double loadTimeMaxMillis) {
+        this.loadTimeMaxMillis = loadTimeMaxMillis;
+    }
+
+    public Map<String, Double> getLoadTimePercentilesMillis() {
+        return loadTimePercentilesMillis;
+    }
+
+    public void setLoadTimePercentilesMillis(Map<String, Double> loadTimePercentilesMillis) {
+        this.loadTimePercentilesMillis = loadTimePercentilesMillis;
+    }
+
+    public Map<String, Long> getLoadTimeHistogramMillis() {
+        return loadTimeHistogramMillis;
+    }
+
+    public void setLoadTimeHistogramMillis(Map<String, Long> loadTimeHistogramMillis) {
+        this.loadTimeHistogramMillis = loadTimeHistogramMillis;
+    }
+}
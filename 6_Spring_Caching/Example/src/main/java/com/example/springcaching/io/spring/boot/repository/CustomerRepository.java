@@ -0,0 +1,81 @@
+package com.example.springcaching.io.spring.boot.repository;
+
+import com.example.springcaching.io.spring.boot.model.Customer;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory stand-in for the customer backend. Every call pays one simulated round trip,
+ * however many accounts it asks for, which is what makes loading misses in bulk worthwhile.
+ */
+@Repository
+public class CustomerRepository {
+
+    private static final long ROUND_TRIP_MILLIS = 20;
+
+    private final Map<Integer, Customer> customers = new ConcurrentHashMap<>();
+
+    public CustomerRepository() {
+        save(new Customer(5126890, "Alex Doe", "Current A/c", 450000.00));
+        save(new Customer(7620015, "Andrew McArtur", "Saving A/c", 210089.00));
+    }
+
+    public List<Customer> findAll() {
+        roundTrip();
+        return new ArrayList<>(customers.values());
+    }
+
+    public Customer findById(int accountNo) {
+        roundTrip();
+        return customers.get(accountNo);
+    }
+
+    //accounts that do not exist are left out of the result
+    public Map<Integer, Customer> findAllById(Collection<Integer> accountNos) {
+        roundTrip();
+        Map<Integer, Customer> found = new HashMap<>();
+        for (Integer accountNo : accountNos) {
+            Customer customer = customers.get(accountNo);
+            if (customer != null) {
+                found.put(accountNo, customer);
+            }
+        }
+        return found;
+    }
+
+    public void save(Customer customer) {
+        customers.put(customer.getAccountNo(), customer);
+    }
+
+    //false when the account already exists
+    public boolean insert(Customer customer) {
+        roundTrip();
+        return customers.putIfAbsent(customer.getAccountNo(), customer) == null;
+    }
+
+    //false when the account does not exist
+    public boolean update(Customer customer) {
+        roundTrip();
+        return customers.replace(customer.getAccountNo(), customer) != null;
+    }
+
+    public boolean delete(int accountNo) {
+        roundTrip();
+        return customers.remove(accountNo) != null;
+    }
+
+    private static void roundTrip() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ROUND_TRIP_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.springcaching.io.spring.boot.service;
+
+import com.example.springcaching.io.spring.boot.cache.CacheDecorator;
+import com.example.springcaching.io.spring.boot.cache.SingleFlightCache;
+import com.example.springcaching.io.spring.boot.model.Customer;
+import com.example.springcaching.io.spring.boot.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CustomerService {
+
+    //the list of all customers is cached under SimpleKey.EMPTY, single customers under their account number
+    public static final String CACHE = "customerInfo";
+
+    private static final String ALL_CUSTOMERS = "T(org.springframework.cache.interceptor.SimpleKey).EMPTY";
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Cacheable(value = CACHE)
+    public List<Customer> getAllCustomers() {
+        System.out.println("Customer information from cache");
+        return customerRepository.findAll();
+    }
+
+    // a missing account is cached as null too, so asking for it again does not reach the repository
+    @Cacheable(value = CACHE, key = "#accountNo")
+    public Customer getCustomer(int accountNo) {
+        return customerRepository.findById(accountNo);
+    }
+
+    // looks every account up in the cache and loads all misses with one repository call
+    public List<Customer> getCustomers(List<Integer> accountNos) {
+        Cache cache = cacheManager.getCache(CACHE);
+        Map<Integer, Customer> customers = new LinkedHashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer accountNo : new LinkedHashSet<>(accountNos)) {
+            Cache.ValueWrapper cached = cache.get(accountNo);
+            if (cached == null) {
+                misses.add(accountNo);
+                customers.put(accountNo, null);
+            } else {
+                customers.put(accountNo, (Customer) cached.get());
+            }
+        }
+        if (!misses.isEmpty()) {
+            //without the leases a customer updated during the bulk load would be cached with its old data
+            SingleFlightCache singleFlight = CacheDecorator.unwrap(cache, SingleFlightCache.class);
+            long[] leases = new long[misses.size()];
+            for (int i = 0; i < misses.size() && singleFlight != null; i++) {
+                leases[i] = singleFlight.lease(misses.get(i));
+            }
+            Map<Integer, Customer> loaded = customerRepository.findAllById(misses);
+            for (int i = 0; i < misses.size(); i++) {
+                Integer accountNo = misses.get(i);
+                Customer customer = loaded.get(accountNo);
+                if (singleFlight != null) {
+                    singleFlight.fill(accountNo, customer, leases[i]);
+                } else {
+                    cache.put(accountNo, customer);
+                }
+                customers.put(accountNo, customer);
+            }
+        }
+        List<Customer> found = new ArrayList<>(customers.size());
+        for (Customer customer : customers.values()) {
+            if (customer != null) {
+                found.add(customer);
+            }
+        }
+        return found;
+    }
+
+    // the entry of the account is evicted after the repository call rather than replaced, two concurrent writes could
+    // put their customers in the opposite order of their repository writes and leave the older one cached
+    @Caching(evict = {@CacheEvict(value = CACHE, key = "#customer.accountNo"), @CacheEvict(value = CACHE, key = ALL_CUSTOMERS)})
+    public Customer createCustomer(Customer customer) {
+        return customerRepository.insert(customer) ? customer : null;
+    }
+
+    @Caching(evict = {@CacheEvict(value = CACHE, key = "#customer.accountNo"), @CacheEvict(value = CACHE, key = ALL_CUSTOMERS)})
+    public Customer updateCustomer(Customer customer) {
+        return customerRepository.update(customer) ? customer : null;
+    }
+
+    // evicted after the repository call, so a concurrent read cannot cache the deleted customer again
+    @Caching(evict = {@CacheEvict(value = CACHE, key = "#accountNo"), @CacheEvict(value = CACHE, key = ALL_CUSTOMERS)})
+    public boolean deleteCustomer(int accountNo) {
+        return customerRepository.delete(accountNo);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.springcaching.benchmark;
+
+import com.example.springcaching.io.spring.boot.cache.BoundedCacheManager;
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Replays the same key trace against the default ConcurrentMapCache, a plain LRU cache and the
+ * BoundedCacheManager cache and prints hit ratio and resident entries of each.
+ * <p>
+ * The trace mixes a skewed (Zipf) stream of hot keys with periodic scans over keys that are
+ * never requested again, which is what a batch job or a crawler does to a cache.
+ * Run the main method from the test sources.
+ */
+public class HitRatioBenchmark {
+
+    private static final int KEY_SPACE = 100_000;
+    private static final int REQUESTS = 2_000_000;
+    private static final int CAPACITY = 2_000;
+    private static final int SCAN_EVERY = 50_000;
+    private static final int SCAN_LENGTH = 20_000;
+
+    public static void main(String[] args) {
+        int[] trace = trace(new Random(42));
+
+        System.out.printf("%-28s %10s %12s%n", "cache", "hit ratio", "entries");
+        report("ConcurrentMapCache (default)", new ConcurrentMapCache("default"), trace);
+        report("LRU, " + CAPACITY + " entries", new LruCache(CAPACITY), trace);
+
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize((long) CAPACITY);
+        BoundedCacheManager cacheManager = new BoundedCacheManager(properties, new SimpleMeterRegistry());
+        cacheManager.afterPropertiesSet();
+        report("Bounded, " + CAPACITY + " entries", cacheManager.getCache("bounded"), trace);
+    }
+
+    private static void report(String name, Cache cache, int[] trace) {
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        System.out.printf("%-28s %9.2f%% %12d%n", name, 100.0 * hits / trace.length, size(cache));
+    }
+
+    private static long size(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof Map) {
+            return ((Map<?, ?>) nativeCache).size();
+        }
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).estimatedSize();
+    }
+
+    //zipf distributed hot keys with a scan of never repeated keys every SCAN_EVERY requests
+    private static int[] trace(Random random) {
+        double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cdf[i] = sum;
+        }
+        int[] trace = new int[REQUESTS];
+        int scanKey = KEY_SPACE;
+        for (int i = 0; i < REQUESTS; i++) {
+            if (i % SCAN_EVERY < SCAN_LENGTH && (i / SCAN_EVERY) % 2 == 1) {
+                trace[i] = scanKey++;
+            } else {
+                int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                trace[i] = index >= 0 ? index : -index - 1;
+            }
+        }
+        return trace;
+    }
+
+    //least recently used eviction, the usual hand-rolled alternative to an unbounded map
+    private static class LruCache extends AbstractValueAdaptingCache {
+
+        private final Map<Object, Object> map;
+
+        LruCache(int capacity) {
+            super(false);
+            this.map = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        @Override
+        protected synchronized Object lookup(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public String getName() {
+            return "lru";
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return map;
+        }
+
+        //loads a missing key under the lock, so concurrent callers load it once
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T get(Object key, Callable<T> valueLoader) {
+            Object value = map.get(key);
+            if (value == null) {
+                try {
+                    value = toStoreValue(valueLoader.call());
+                } catch (Exception ex) {
+                    throw new ValueRetrievalException(key, valueLoader, ex);
+                }
+                map.put(key, value);
+            }
+            return (T) fromStoreValue(value);
+        }
+
+        @Override
+        public synchronized void put(Object key, Object value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public synchronized void evict(Object key) {
+            map.remove(key);
+        }
+
+        @Override
+        public synchronized void clear() {
+            map.clear();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.springcaching.benchmark;
+
+import com.example.springcaching.io.spring.boot.cache.BoundedCacheManager;
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import com.example.springcaching.io.spring.boot.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs READERS threads reading customers through the bounded cache while WRITERS threads keep updating them,
+ * once for each way of keeping the cache in step with the writes:
+ * <ul>
+ * <li>put: the updated customer replaces its own entry, as {@code @CachePut} does</li>
+ * <li>evict: the entry of the customer is evicted, as {@code @CacheEvict} does</li>
+ * <li>clear: the whole cache is flushed on every write</li>
+ * </ul>
+ * In every round the writers update the same customer at once and then check whether the cached customer differs
+ * from the backend. It prints the hit ratio and throughput of the readers and the number of rounds that left a
+ * stale customer cached. That has to be 0 for evict and clear. With put, two writers can update the cache in the
+ * opposite order of the backend and leave the older customer cached, which is why the service evicts.
+ * Run the main method from the test sources.
+ */
+public class ReadWriteBenchmark {
+
+    private static final int CUSTOMERS = 20_000;
+    private static final int CAPACITY = 5_000;
+    private static final int READERS = 8;
+    private static final int WRITERS = 4;
+    private static final long WRITE_INTERVAL_MICROS = 1_000;
+    //up to this long between the repository write and the cache update, e.g. the commit and returning through the proxy
+    private static final long COMMIT_MICROS = 200;
+    private static final long LOAD_MICROS = 200;
+    private static final long RUN_SECONDS = 5;
+
+    private enum Strategy { PUT, EVICT, CLEAR }
+
+    public static void main(String[] args) throws InterruptedException {
+        double[] cdf = zipf();
+        System.out.printf("%-6s %10s %14s %10s %8s%n", "write", "hit ratio", "reads/s", "writes", "stale");
+        for (Strategy strategy : Strategy.values()) {
+            run(strategy, cdf);
+        }
+    }
+
+    private static void run(Strategy strategy, double[] cdf) throws InterruptedException {
+        Map<Integer, Customer> backend = new ConcurrentHashMap<>();
+        for (int accountNo = 0; accountNo < CUSTOMERS; accountNo++) {
+            backend.put(accountNo, new Customer(accountNo, "Customer " + accountNo, "Saving A/c", 0));
+        }
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize((long) CAPACITY);
+        BoundedCacheManager cacheManager = new BoundedCacheManager(properties, new SimpleMeterRegistry());
+        cacheManager.afterPropertiesSet();
+        Cache cache = cacheManager.getCache("customerInfo");
+
+        LongAdder hits = new LongAdder();
+        LongAdder misses = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(RUN_SECONDS);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            Random random = new Random(i);
+            Thread reader = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    int accountNo = next(cdf, random);
+                    boolean[] loaded = new boolean[1];
+                    cache.get(accountNo, () -> {
+                        loaded[0] = true;
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(LOAD_MICROS));
+                        return backend.get(accountNo);
+                    });
+                    (loaded[0] ? misses : hits).increment();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        //in every round all writers update the same customer at once, the backend first and the cache after it like
+        //the service does; once all of them are done, a cached customer that differs from the backend is stale
+        Random random = new Random(-1);
+        int[] accountNo = new int[1];
+        boolean[] done = new boolean[1];
+        LongAdder stale = new LongAdder();
+        CyclicBarrier start = new CyclicBarrier(WRITERS, () -> {
+            accountNo[0] = next(cdf, random);
+            done[0] = System.nanoTime() >= deadline;
+        });
+        CyclicBarrier end = new CyclicBarrier(WRITERS, () -> {
+            Cache.ValueWrapper cached = cache.get(accountNo[0]);
+            if (cached != null && ((Customer) cached.get()).getBalance() != backend.get(accountNo[0]).getBalance()) {
+                stale.increment();
+            }
+        });
+        AtomicLong writes = new AtomicLong();
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            Random jitter = new Random(-2 - i);
+            Thread writer = new Thread(() -> {
+                while (true) {
+                    await(start);
+                    if (done[0]) {
+                        return;
+                    }
+                    Customer updated = new Customer(accountNo[0], "Customer " + accountNo[0], "Saving A/c", writes.incrementAndGet());
+                    backend.put(accountNo[0], updated);
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(jitter.nextInt((int) COMMIT_MICROS)));
+                    switch (strategy) {
+                        case PUT:
+                            cache.put(accountNo[0], updated);
+                            break;
+                        case EVICT:
+                            cache.evict(accountNo[0]);
+                            break;
+                        default:
+                            cache.clear();
+                    }
+                    await(end);
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(WRITE_INTERVAL_MICROS));
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        long reads = hits.sum() + misses.sum();
+        System.out.printf("%-6s %9.2f%% %14d %10d %8d%n", strategy.name().toLowerCase(), 100.0 * hits.sum() / reads,
+                reads / RUN_SECONDS, writes.get(), stale.sum());
+        cacheManager.destroy();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int next(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble() * cdf[cdf.length - 1]);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static double[] zipf() {
+        double[] cdf = new double[CUSTOMERS];
+        double sum = 0;
+        for (int i = 0; i < CUSTOMERS; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cdf[i] = sum;
+        }
+        return cdf;
+    }
+}
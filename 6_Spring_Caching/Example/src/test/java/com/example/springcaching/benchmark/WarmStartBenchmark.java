@@ -0,0 +1,80 @@
+package com.example.springcaching.benchmark;
+
+import com.example.springcaching.io.spring.boot.cache.BoundedCacheManager;
+import com.example.springcaching.io.spring.boot.cache.CacheSnapshotter;
+import com.example.springcaching.io.spring.boot.config.CacheProperties;
+import com.example.springcaching.io.spring.boot.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cold start with a warm start from a cache snapshot.
+ * <p>
+ * A first cache is filled with HOT_KEYS customers and written to a snapshot. Then one empty cache and one
+ * cache loaded from the snapshot serve the same requests for the hot keys, where a miss costs LOAD_MILLIS
+ * like a call to the backend would. The benchmark prints the time to load the snapshot and the time until
+ * all requests were served, which is when a cold cache has finally warmed up.
+ * Run the main method from the test sources.
+ */
+public class WarmStartBenchmark {
+
+    private static final int HOT_KEYS = 2_000;
+    private static final int LOAD_MILLIS = 2;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("cache-snapshot", ".bin");
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize(10_000L);
+        CacheProperties.Snapshot snapshot = properties.getSnapshot();
+        snapshot.setFile(file);
+        snapshot.setCaches(List.of("customerInfo"));
+
+        BoundedCacheManager previous = newCacheManager(properties);
+        serve(previous.getCache("customerInfo"));
+        long written = new CacheSnapshotter(previous, snapshot).write(file);
+        System.out.printf("snapshot: %d entries, %d KB%n", written, Files.size(file) / 1024);
+
+        System.out.printf("%-6s %14s %14s %8s%n", "start", "restore (ms)", "serve (ms)", "misses");
+        BoundedCacheManager cold = newCacheManager(properties);
+        report("cold", 0, cold.getCache("customerInfo"));
+
+        BoundedCacheManager warm = newCacheManager(properties);
+        long started = System.nanoTime();
+        new CacheSnapshotter(warm, snapshot).load(file);
+        report("warm", System.nanoTime() - started, warm.getCache("customerInfo"));
+
+        Files.deleteIfExists(file);
+    }
+
+    private static BoundedCacheManager newCacheManager(CacheProperties properties) {
+        BoundedCacheManager cacheManager = new BoundedCacheManager(properties, new SimpleMeterRegistry());
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private static void report(String name, long restoreNanos, Cache cache) {
+        long started = System.nanoTime();
+        int misses = serve(cache);
+        System.out.printf("%-6s %14d %14d %8d%n", name, TimeUnit.NANOSECONDS.toMillis(restoreNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), misses);
+    }
+
+    //requests every hot key once, a miss sleeps like a call to the backend
+    private static int serve(Cache cache) {
+        int[] misses = new int[1];
+        for (int accountNo = 0; accountNo < HOT_KEYS; accountNo++) {
+            int key = accountNo;
+            cache.get(key, () -> {
+                misses[0]++;
+                Thread.sleep(LOAD_MILLIS);
+                return new Customer(key, "Customer " + key, "savings", key * 10.0);
+            });
+        }
+        return misses[0];
+    }
+}
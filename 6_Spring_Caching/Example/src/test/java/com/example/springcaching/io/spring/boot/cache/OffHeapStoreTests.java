@@ -0,0 +1,160 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapStoreTests {
+
+    @Test
+    void returnsStoredValueAndCountsReads() {
+        OffHeapStore store = new OffHeapStore(1024);
+
+        assertThat(store.put("a", bytes(10, 1), 0)).isTrue();
+
+        assertThat(store.get("a").getBytes()).isEqualTo(bytes(10, 1));
+        OffHeapStore.Read read = store.get("a");
+        assertThat(read.getHits()).isEqualTo(2);
+        assertThat(read.getExpiresAt()).isZero();
+        assertThat(store.get("b")).isNull();
+    }
+
+    @Test
+    void replacesValueOfSameKey() {
+        OffHeapStore store = new OffHeapStore(1024);
+
+        store.put("a", bytes(10, 1), 0);
+        store.put("a", bytes(100, 2), 0);
+
+        assertThat(store.get("a").getBytes()).isEqualTo(bytes(100, 2));
+        OffHeapStore.Usage usage = store.usage();
+        assertThat(usage.getEntries()).isEqualTo(1);
+        assertThat(usage.getPayloadBytes()).isEqualTo(100);
+        assertThat(usage.getUsedBytes()).isEqualTo(128);
+    }
+
+    @Test
+    void rejectsValueLargerThanSegment() {
+        OffHeapStore store = new OffHeapStore(256);
+
+        assertThat(store.put("a", new byte[257], 0)).isFalse();
+        assertThat(store.usage().getEntries()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedValueWhenFull() {
+        List<Object> evicted = new ArrayList<>();
+        OffHeapStore store = new OffHeapStore(256, evicted::add);
+        for (int i = 0; i < 4; i++) {
+            assertThat(store.put(i, bytes(64, i), 0)).isTrue();
+        }
+        store.get(0);
+
+        assertThat(store.put(4, bytes(64, 4), 0)).isTrue();
+
+        assertThat(evicted).containsExactly(1);
+        assertThat(store.get(1)).isNull();
+        assertThat(store.get(0)).isNotNull();
+        assertThat(store.usage().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsSmallerValuesToMakeRoomForLargeOne() {
+        List<Object> evicted = new ArrayList<>();
+        OffHeapStore store = new OffHeapStore(256, evicted::add);
+        for (int i = 0; i < 4; i++) {
+            store.put(i, bytes(64, i), 0);
+        }
+
+        assertThat(store.put("large", bytes(256, 9), 0)).isTrue();
+
+        assertThat(evicted).containsExactlyInAnyOrder(0, 1, 2, 3);
+        assertThat(store.get("large").getBytes()).isEqualTo(bytes(256, 9));
+    }
+
+    @Test
+    void mergesFreedBlocksWithTheirBuddies() {
+        OffHeapStore store = new OffHeapStore(256);
+        for (int i = 0; i < 4; i++) {
+            store.put(i, bytes(64, i), 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            store.remove(i);
+        }
+
+        assertThat(store.put("large", bytes(256, 9), 0)).isTrue();
+
+        assertThat(store.usage().getEvictions()).isZero();
+        assertThat(store.usage().getReservedBytes()).isEqualTo(256);
+    }
+
+    @Test
+    void dropsExpiredValueAndNotifiesListener() throws InterruptedException {
+        List<Object> evicted = new ArrayList<>();
+        OffHeapStore store = new OffHeapStore(1024, evicted::add);
+        store.put("a", bytes(10, 1), TimeUnit.MILLISECONDS.toNanos(1));
+
+        Thread.sleep(5);
+
+        assertThat(store.get("a")).isNull();
+        assertThat(evicted).containsExactly("a");
+        assertThat(store.usage().getEntries()).isZero();
+    }
+
+    @Test
+    void takeRemovesValue() {
+        OffHeapStore store = new OffHeapStore(1024);
+        store.put("a", bytes(10, 1), 0);
+
+        assertThat(store.take("a").getBytes()).isEqualTo(bytes(10, 1));
+        assertThat(store.get("a")).isNull();
+        assertThat(store.usage().getUsedBytes()).isZero();
+    }
+
+    @Test
+    void keepsValuesIntactUnderConcurrentAccess() throws Exception {
+        OffHeapStore store = new OffHeapStore(16 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int key = thread * 1_000 + i % 100;
+                        byte[] value = bytes(1 + key % 200, key);
+                        store.put(key, value, 0);
+                        OffHeapStore.Read read = store.get(key);
+                        //another thread may have evicted it, but never overwritten it with other bytes
+                        if (read != null) {
+                            assertThat(read.getBytes()).isEqualTo(value);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        OffHeapStore.Usage usage = store.usage();
+        assertThat(usage.getUsedBytes()).isLessThanOrEqualTo(usage.getCapacityBytes());
+        assertThat(usage.getPayloadBytes()).isLessThanOrEqualTo(usage.getUsedBytes());
+    }
+
+    private static byte[] bytes(int length, int fill) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) fill);
+        return bytes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the caches of the simple cache manager never expire, only the listener keeps the cached bodies in step
+@SpringBootTest(properties = {"app.cache.type=simple", "app.cache.response.enabled=true", "app.cache.snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class ResponseCacheSimpleManagerTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void dropsCachedResponsesWhenCustomerIsWritten() throws Exception {
+        mockMvc.perform(get("/customerInfo/5126890")).andExpect(jsonPath("$.balance").value(450000.0));
+        mockMvc.perform(get("/customerInfo")).andExpect(jsonPath("$[0].balance").value(450000.0));
+
+        mockMvc.perform(put("/customerInfo/5126890").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Alex Doe\",\"accountType\":\"Current A/c\",\"balance\":1.0}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/customerInfo/5126890")).andExpect(jsonPath("$.balance").value(1.0));
+        mockMvc.perform(get("/customerInfo")).andExpect(jsonPath("$[0].balance").value(1.0));
+    }
+}
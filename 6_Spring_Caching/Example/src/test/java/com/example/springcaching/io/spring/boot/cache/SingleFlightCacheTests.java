@@ -0,0 +1,114 @@
+package com.example.springcaching.io.spring.boot.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTests {
+
+    @Test
+    void loadsMissingKeyOnceForConcurrentCallers() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            //let the callers pile up behind the first load
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("key").get()).isEqualTo("value");
+    }
+
+    @Test
+    void passesLoaderFailureToCallerAndRetriesNextTime() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"));
+
+        assertThatThrownBy(() -> cache.get("key", () -> {
+            throw new IllegalStateException("backend down");
+        }))
+                .isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void dropsFillThatRacedWithWrite() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"));
+
+        long lease = cache.lease("key");
+        cache.put("key", "written");
+
+        assertThat(cache.fill("key", "loaded", lease)).isFalse();
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void dropsFillThatRacedWithEviction() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"));
+
+        long lease = cache.lease("key");
+        cache.evict("key");
+
+        assertThat(cache.fill("key", "loaded", lease)).isFalse();
+        assertThat(cache.fill("key", "loaded", cache.lease("key"))).isTrue();
+        assertThat(cache.get("key").get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void refreshesDueEntryWhileServingOldValue() throws InterruptedException {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"),
+                Duration.ofMillis(1), Runnable::run, Duration.ZERO, 100);
+        AtomicInteger version = new AtomicInteger();
+
+        assertThat(cache.get("key", version::incrementAndGet)).isEqualTo(1);
+        Thread.sleep(5);
+
+        assertThat(cache.get("key", version::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get("key", version::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsOldValueWhenRefreshFails() throws InterruptedException {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("customers"),
+                Duration.ofMillis(1), Runnable::run, Duration.ZERO, 100);
+        cache.get("key", () -> "value");
+        Thread.sleep(5);
+        String value = cache.get("key", () -> {
+            throw new IllegalStateException("backend down");
+        });
+
+        assertThat(value).isEqualTo("value");
+        assertThat(cache.get("key").get()).isEqualTo("value");
+    }
+}